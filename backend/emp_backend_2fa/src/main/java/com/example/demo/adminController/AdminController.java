@@ -12,13 +12,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.demo.adminModel.AdminModel;
+import com.example.demo.adminModel.AdminPrincipal;
 import com.example.demo.jwt.JwtUtil;
 import com.example.demo.service.AdminService;
+import com.example.demo.service.LoginThrottleService;
+import com.example.demo.service.TokenRevocationService;
 import com.example.demo.service.TwoFactorService;
 
+import io.jsonwebtoken.Claims;
+
+import jakarta.servlet.http.HttpServletRequest;
+
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -31,18 +39,23 @@ public class AdminController {
     private final TwoFactorService twoFactorService;
     private final AdminService adminService;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService revocationService;
+    private final LoginThrottleService throttleService;
 
-    public AdminController(AdminService service, JwtUtil jwtUtil, TwoFactorService twoFactorService) {
+    public AdminController(AdminService service, JwtUtil jwtUtil, TwoFactorService twoFactorService,
+                           TokenRevocationService revocationService, LoginThrottleService throttleService) {
         this.twoFactorService = twoFactorService;
         this.adminService = service;
         this.jwtUtil = jwtUtil;
+        this.revocationService = revocationService;
+        this.throttleService = throttleService;
     }
 
     // -----------------------
     // Login (2FA-aware)
     // -----------------------
     @PostMapping("/admin/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials, HttpServletRequest request) {
         String name = credentials.get("adminName");
         String password = credentials.get("adminPassword");
 
@@ -53,8 +66,12 @@ public class AdminController {
             ));
         }
 
+        // throttled before the BCrypt check, so rejected attempts cost no hashing
+        throttleService.checkAllowed(request, name);
+
         Optional<AdminModel> optionalAdmin = adminService.login(name, password);
         if (optionalAdmin.isEmpty()) {
+            throttleService.recordFailure(request, name);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
                     "status", "error",
                     "message", "Invalid credentials"
@@ -64,25 +81,7 @@ public class AdminController {
         AdminModel admin = optionalAdmin.get();
 
         // If 2FA enabled -> return short-lived preAuth token instead of final JWT
-        boolean twoFaEnabled = false;
-        try {
-            // support either isTwoFactorEnabled() or getTwoFactorEnabled() depending on your model
-            // handle both possibilities defensively
-            try {
-                twoFaEnabled = (boolean) AdminModel.class.getMethod("isTwoFactorEnabled").invoke(admin);
-            } catch (NoSuchMethodException e) {
-                // fallback to getTwoFactorEnabled()
-                try {
-                    twoFaEnabled = (boolean) AdminModel.class.getMethod("getTwoFactorEnabled").invoke(admin);
-                } catch (NoSuchMethodException ex) {
-                    // if neither exists, assume false (or change accordingly)
-                    twoFaEnabled = false;
-                }
-            }
-        } catch (Exception ex) {
-            // reflection failed — default to false (but log in real app)
-            twoFaEnabled = false;
-        }
+        boolean twoFaEnabled = Boolean.TRUE.equals(admin.getTwoFactorEnabled());
 
         if (twoFaEnabled) {
             // generate a short-lived preAuth token (JwtUtil must implement this)
@@ -94,7 +93,8 @@ public class AdminController {
             ));
         }
 
-        // Normal login — issue final JWT
+        // Normal login — issue final JWT (with 2FA on, failures are only cleared once the code is verified)
+        throttleService.recordSuccess(admin.getAdminName());
         String token = jwtUtil.generateToken(admin.getAdminName(), admin.getRole());
         return ResponseEntity.ok(Map.of(
                 "status", "success",
@@ -136,7 +136,7 @@ public class AdminController {
     // Forgot Password
     // -----------------------
     @PostMapping("/admin/forgot-password")
-    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> payload) {
+    public ResponseEntity<?> forgotPassword(@RequestBody Map<String, String> payload, HttpServletRequest request) {
         String adminName = payload.get("adminName");
         String newPassword = payload.get("newPassword");
 
@@ -144,16 +144,22 @@ public class AdminController {
             return ResponseEntity.badRequest().body(Map.of("status", "error", "message", "adminName and newPassword required"));
         }
 
-        return adminService.resetPassword(adminName, newPassword)
-                .map(updatedAdmin -> ResponseEntity.ok(Map.of(
-                        "status", "success",
-                        "message", "Password reset successful",
-                        "username", updatedAdmin.getAdminName()
-                )))
-                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
-                        "status", "error",
-                        "message", "Admin not found"
-                )));
+        throttleService.checkAllowed(request, adminName);
+
+        Optional<AdminModel> updated = adminService.resetPassword(adminName, newPassword);
+        if (updated.isEmpty()) {
+            // unknown names count against the IP, which slows down username enumeration
+            throttleService.recordFailure(request, adminName);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                    "status", "error",
+                    "message", "Admin not found"
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+                "status", "success",
+                "message", "Password reset successful",
+                "username", updated.get().getAdminName()
+        ));
     }
 
     // -----------------------
@@ -166,14 +172,14 @@ public class AdminController {
         }
 
         String username = principal.getName();
-        Optional<AdminModel> userOpt = adminService.getByName(username);
-        if (userOpt.isEmpty()) {
+        if (adminService.getPrincipal(username).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "User not found"));
         }
 
         String secret = twoFactorService.generateSecret();
         // Save secret (but do NOT enable until confirmed)
         adminService.saveTwoFaSecret(username, secret);
+        twoFactorService.forget(username);
 
         String otpAuthUrl = twoFactorService.getOtpAuthURL("MyApp", username, secret);
         return ResponseEntity.ok(Map.of("secret", secret, "otpAuthUrl", otpAuthUrl));
@@ -184,7 +190,8 @@ public class AdminController {
  // Confirm 2FA setup by verifying code (authenticated)
  // -----------------------
  @PostMapping("/2fa/confirm")
- public ResponseEntity<?> confirm2Fa(@RequestBody Map<String, String> body, Principal principal) {
+ public ResponseEntity<?> confirm2Fa(@RequestBody Map<String, String> body, Principal principal,
+                                     HttpServletRequest request) {
      if (principal == null || principal.getName() == null) {
          return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Not authenticated"));
      }
@@ -195,11 +202,13 @@ public class AdminController {
          return ResponseEntity.badRequest().body(Map.of("message", "code is required"));
      }
 
-     Optional<AdminModel> userOpt = adminService.getByName(username);
+     throttleService.checkAllowed(request, username);
+
+     Optional<AdminPrincipal> userOpt = adminService.getPrincipal(username);
      if (userOpt.isEmpty()) {
          return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "User not found"));
      }
-     AdminModel user = userOpt.get();
+     AdminPrincipal user = userOpt.get();
      String secret = user.getTwoFactorSecret();
      if (secret == null || secret.isBlank()) {
          return ResponseEntity.badRequest().body(Map.of("message", "2FA not initialized for this user"));
@@ -212,16 +221,21 @@ public class AdminController {
          return ResponseEntity.badRequest().body(Map.of("message", "Invalid code format"));
      }
 
-     boolean ok = twoFactorService.verifyCode(secret, code);
+     boolean ok = twoFactorService.verifyCode(username, secret, code);
      if (ok) {
+         throttleService.recordSuccess(username);
          adminService.enableTwoFa(username);
+         // enabling 2FA revokes existing tokens, so hand this session a fresh one
+         String token = jwtUtil.generateToken(username, user.getRole());
          // return username + twoFactorEnabled flag to make frontend explicit
          return ResponseEntity.ok(Map.of(
              "message", "2FA enabled",
              "username", username,
-             "twoFactorEnabled", true
+             "twoFactorEnabled", true,
+             "token", token
          ));
      } else {
+         throttleService.recordFailure(request, username);
          return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid 2FA code"));
      }
  }
@@ -231,7 +245,8 @@ public class AdminController {
  // -----------------------
  @PostMapping("/2fa/verify")
  public ResponseEntity<?> verify2Fa(@RequestBody(required = false) Map<String, String> body,
-                                    @RequestHeader(value = "Authorization", required = false) String authHeader) {
+                                    @RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    HttpServletRequest request) {
      // Try body first
      String preAuthToken = (body != null) ? body.get("preAuthToken") : null;
      String codeStr = (body != null) ? body.get("code") : null;
@@ -245,17 +260,24 @@ public class AdminController {
          return ResponseEntity.badRequest().body(Map.of("message", "preAuthToken and code are required"));
      }
 
-     // validate preAuth token
-     if (!jwtUtil.validatePreAuthToken(preAuthToken)) {
+     // per-IP limit first: forged or expired preAuth tokens must not get unlimited parses either
+     throttleService.checkAllowed(request, null);
+
+     // validate preAuth token (a password reset since login also invalidates it)
+     Claims preAuthClaims = jwtUtil.resolveClaims(preAuthToken);
+     if (!jwtUtil.validatePreAuthToken(preAuthToken) || preAuthClaims == null || revocationService.isRevoked(preAuthClaims)) {
          return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid or expired preAuth token"));
      }
 
-     String username = jwtUtil.extractUsername(preAuthToken);
-     Optional<AdminModel> userOpt = adminService.getByName(username);
+     String username = preAuthClaims.getSubject();
+     // the ±1 step window accepts 3 of 10^6 codes, so guesses per account are what must stay scarce
+     throttleService.checkAccountAllowed(username);
+
+     Optional<AdminPrincipal> userOpt = adminService.getPrincipal(username);
      if (userOpt.isEmpty()) {
          return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "User not found"));
      }
-     AdminModel user = userOpt.get();
+     AdminPrincipal user = userOpt.get();
 
      int code;
      try {
@@ -264,8 +286,9 @@ public class AdminController {
          return ResponseEntity.badRequest().body(Map.of("message", "Invalid code format"));
      }
 
-     boolean ok = twoFactorService.verifyCode(user.getTwoFactorSecret(), code);
+     boolean ok = twoFactorService.verifyCode(username, user.getTwoFactorSecret(), code);
      if (ok) {
+         throttleService.recordSuccess(username);
          String token = jwtUtil.generateToken(username, user.getRole());
          // Return token plus username & role for frontend convenience
          return ResponseEntity.ok(Map.of(
@@ -274,11 +297,36 @@ public class AdminController {
              "role", user.getRole()
          ));
      } else {
+         throttleService.recordFailure(request, username);
          return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid 2FA code"));
      }
  }
 
     
+    // -----------------------
+    // Logout: revoke the calling token (?all=true: every token of this user, all devices)
+    // -----------------------
+    @PostMapping("/admin/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authHeader,
+                                    @RequestParam(value = "all", defaultValue = "false") boolean all) {
+        Claims claims = (authHeader != null && authHeader.startsWith("Bearer "))
+                ? jwtUtil.resolveClaims(authHeader.substring(7))
+                : null;
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Not authenticated"));
+        }
+
+        if (all) {
+            revocationService.revokeAllFor(claims.getSubject());
+        } else {
+            revocationService.revoke(claims);
+        }
+        return ResponseEntity.ok(Map.of(
+            "status", "success",
+            "message", all ? "Logged out on all devices" : "Logged out"
+        ));
+    }
+
     @GetMapping("/admin/me")
     public ResponseEntity<?> me(Principal principal) {
         if (principal == null || principal.getName() == null) {
@@ -286,31 +334,16 @@ public class AdminController {
         }
 
         String username = principal.getName();
-        Optional<AdminModel> userOpt = adminService.getByName(username);
+        Optional<AdminPrincipal> userOpt = adminService.getPrincipal(username);
         if (userOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "User not found"));
         }
-        AdminModel user = userOpt.get();
-
-        boolean twoFaEnabled = false;
-        try {
-            try {
-                twoFaEnabled = (boolean) AdminModel.class.getMethod("isTwoFactorEnabled").invoke(user);
-            } catch (NoSuchMethodException e) {
-                try {
-                    twoFaEnabled = (boolean) AdminModel.class.getMethod("getTwoFactorEnabled").invoke(user);
-                } catch (NoSuchMethodException ex) {
-                    twoFaEnabled = false;
-                }
-            }
-        } catch (Exception ex) {
-            twoFaEnabled = false;
-        }
+        AdminPrincipal user = userOpt.get();
 
         return ResponseEntity.ok(Map.of(
             "username", user.getAdminName(),
             "role", user.getRole(),
-            "twoFactorEnabled", twoFaEnabled
+            "twoFactorEnabled", user.isTwoFactorEnabled()
         ));
     }
 }
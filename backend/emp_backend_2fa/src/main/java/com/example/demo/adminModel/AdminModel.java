@@ -85,4 +85,16 @@ public class AdminModel {
         this.twoFactorSecret = twoFactorSecret;
     }
 
-}
\ No newline at end of file
+    // Tokens issued (iat, epoch seconds) before this are rejected: set on password reset / 2FA enablement
+    @Column(name = "tokens_valid_after")
+    private Long tokensValidAfter;
+
+    public Long getTokensValidAfter() {
+        return tokensValidAfter;
+    }
+
+    public void setTokensValidAfter(Long tokensValidAfter) {
+        this.tokensValidAfter = tokensValidAfter;
+    }
+
+}
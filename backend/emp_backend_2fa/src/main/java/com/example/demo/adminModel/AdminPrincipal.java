@@ -0,0 +1,47 @@
+package com.example.demo.adminModel;
+
+/**
+ * Immutable snapshot of the admin data the auth / 2FA endpoints need (no password hash).
+ * Cached by AdminService so /admin/me polling and 2FA checks do not go to MySQL.
+ */
+public final class AdminPrincipal {
+
+    private final Long adminID;
+    private final String adminName;
+    private final String role;
+    private final boolean twoFactorEnabled;
+    private final String twoFactorSecret;
+
+    public AdminPrincipal(Long adminID, String adminName, String role, boolean twoFactorEnabled, String twoFactorSecret) {
+        this.adminID = adminID;
+        this.adminName = adminName;
+        this.role = role;
+        this.twoFactorEnabled = twoFactorEnabled;
+        this.twoFactorSecret = twoFactorSecret;
+    }
+
+    public static AdminPrincipal of(AdminModel admin) {
+        return new AdminPrincipal(admin.getAdminID(), admin.getAdminName(), admin.getRole(),
+                Boolean.TRUE.equals(admin.getTwoFactorEnabled()), admin.getTwoFactorSecret());
+    }
+
+    public Long getAdminID() {
+        return adminID;
+    }
+
+    public String getAdminName() {
+        return adminName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isTwoFactorEnabled() {
+        return twoFactorEnabled;
+    }
+
+    public String getTwoFactorSecret() {
+        return twoFactorSecret;
+    }
+}
@@ -4,6 +4,7 @@ import com.example.demo.adminModel.AdminModel;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +12,7 @@ public interface AdminRepository extends JpaRepository<AdminModel, Long> {
     
     // Admin को username से ढूंढने के लिए
     Optional<AdminModel> findByAdminName(String adminName);
+
+    // users with a token watermark, loaded into TokenRevocationService
+    List<AdminModel> findByTokensValidAfterIsNotNull();
 }
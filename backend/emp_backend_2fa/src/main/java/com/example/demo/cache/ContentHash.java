@@ -0,0 +1,35 @@
+package com.example.demo.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 content keys for the content-addressed caches (parse results, embeddings).
+ */
+public final class ContentHash {
+
+    private ContentHash() {}
+
+    /**
+     * Hex SHA-256 over the given parts. Parts are separated by a NUL byte so
+     * ("ab","c") and ("a","bc") never collide.
+     */
+    public static String sha256Hex(String... parts) {
+        MessageDigest md = sha256();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) md.update((byte) 0);
+            if (parts[i] != null) md.update(parts[i].getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -6,9 +6,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
 @Configuration
 public class OpenAiConfig {
 
@@ -21,8 +28,37 @@ public class OpenAiConfig {
     @Value("${openai.api.key:}")
     private String openAiKey;
 
+    // connection pool towards the API host; max-connections is also the cap on concurrent in-flight calls
+    @Value("${openai.http.max-connections:50}")
+    private int maxConnections;
+    @Value("${openai.http.pending-acquire-max:500}")
+    private int pendingAcquireMax;
+    @Value("${openai.http.pending-acquire-timeout-ms:30000}")
+    private long pendingAcquireTimeoutMs;
+    @Value("${openai.http.max-idle-ms:30000}")
+    private long maxIdleMs;
+    @Value("${openai.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAiConnectionProvider() {
+        // pools are kept per remote host, so the limits below apply per host
+        return ConnectionProvider.builder("openai")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
     @Bean(name = "openAiWebClient")
-    public WebClient openAiWebClient() {
+    public WebClient openAiWebClient(ConnectionProvider openAiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(openAiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .compress(true);
+
         // increase in-memory buffer for large responses
         ExchangeStrategies strategies = ExchangeStrategies.builder()
                 .codecs(config -> config.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)) // 16MB
@@ -30,6 +66,7 @@ public class OpenAiConfig {
 
         WebClient.Builder builder = WebClient.builder()
                 .baseUrl(openAiBaseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .exchangeStrategies(strategies)
                 .defaultHeader("Content-Type", "application/json");
 
@@ -46,6 +83,7 @@ public class OpenAiConfig {
             logger.warn("OpenAI API key is empty. calls to OpenAI will fail with 401 unless the key is provided via environment or properties.");
         }
 
+        logger.info("OpenAI connection pool: maxConnections={}, pendingAcquireMax={}", maxConnections, pendingAcquireMax);
         return builder.build();
     }
 }
@@ -0,0 +1,112 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads pinned to their carrier, i.e. blocking inside {@code synchronized} or native
+ * code. On Java 21 the usual suspects here are the MySQL driver (synchronized connection / statement
+ * methods) and Tika parsers; each pin ties up a carrier thread, so enough of them starve the whole pool.
+ *
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process (only when virtual threads are on)
+ * and publishes a {@code virtual.threads.pinned} counter tagged with the first application / library
+ * frame, plus one warning with the stack per distinct site. For a one-off full dump use
+ * {@code -Djdk.tracePinnedThreads=full} instead.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final int MAX_SITES = 200;
+
+    private final WorkerThreads workerThreads;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.threads.pinning-monitor.enabled:true}")
+    private boolean enabled;
+    @Value("${app.threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(WorkerThreads workerThreads, MeterRegistry meterRegistry) {
+        this.workerThreads = workerThreads;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !workerThreads.isVirtual()) return;
+        try {
+            stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+            stream.startAsync();
+            logger.info("Virtual thread pinning monitor started (threshold {} ms)", thresholdMs);
+        } catch (Exception e) {
+            logger.warn("Virtual thread pinning monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+        // tag cardinality stays bounded even if pins show up all over the place
+        String tag = reportedSites.size() < MAX_SITES || reportedSites.contains(site) ? site : "other";
+        Counter.builder("virtual.threads.pinned").tag("site", tag).register(meterRegistry).increment();
+
+        if (reportedSites.size() < MAX_SITES && reportedSites.add(site)) {
+            logger.warn("📌 Virtual thread pinned for {} ms at {}\n{}",
+                    event.getDuration().toMillis(), site, render(event.getStackTrace()));
+        }
+    }
+
+    // first frame outside the JDK, e.g. com.mysql.cj.jdbc.ClientPreparedStatement.executeQuery
+    private static String site(RecordedStackTrace trace) {
+        if (trace == null) return "unknown";
+        for (RecordedFrame frame : trace.getFrames()) {
+            if (!frame.isJavaFrame() || frame.getMethod() == null) continue;
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.") || type.startsWith("jdk.") || type.startsWith("sun.")) continue;
+            return type + "." + frame.getMethod().getName();
+        }
+        return "jdk";
+    }
+
+    private static String render(RecordedStackTrace trace) {
+        if (trace == null) return "  (no stack trace)";
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = trace.getFrames();
+        for (int i = 0; i < Math.min(frames.size(), 20); i++) {
+            RecordedFrame frame = frames.get(i);
+            if (frame.getMethod() == null) continue;
+            sb.append("  at ").append(frame.getMethod().getType().getName()).append('.')
+                    .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the internal executors (ingestion stages, bulk ranking).
+ *
+ * Follows the same switch Spring Boot 3.2 uses for Tomcat and its own task executors,
+ * {@code spring.threads.virtual.enabled}: when it is on and the runtime is Java 21+, blocking workers
+ * (JPA, OpenAI calls, Tika) get virtual threads; otherwise named daemon platform threads as before.
+ * The project still compiles for Java 17, so the virtual-thread builder is looked up reflectively.
+ *
+ * CPU-bound pools (BCrypt, vector index maintenance) deliberately keep platform threads.
+ */
+@Component
+public class WorkerThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkerThreads.class);
+
+    private final boolean virtual;
+
+    public WorkerThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested) {
+        boolean supported = Runtime.version().feature() >= 21;
+        if (virtualRequested && !supported) {
+            logger.warn("spring.threads.virtual.enabled=true but running on Java {}; using platform threads",
+                    Runtime.version().feature());
+        }
+        this.virtual = virtualRequested && supported;
+        logger.info("Worker threads: {}", virtual ? "virtual" : "platform");
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Blocking-work thread factory; threads are named {@code <prefix>-<n>} either way.
+     */
+    public ThreadFactory blocking(String prefix) {
+        if (virtual) {
+            try {
+                return virtualFactory(prefix);
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Virtual thread factory unavailable for {}, using platform threads: {}", prefix, e.toString());
+            }
+        }
+        return platform(prefix);
+    }
+
+    public static ThreadFactory platform(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // Thread.ofVirtual().name(prefix + "-", 1).factory()
+    private static ThreadFactory virtualFactory(String prefix) throws ReflectiveOperationException {
+        Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        Method name = Class.forName("java.lang.Thread$Builder$OfVirtual").getMethod("name", String.class, long.class);
+        builder = name.invoke(builder, prefix + "-", 1L);
+        Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+        return (ThreadFactory) factory.invoke(builder);
+    }
+}
@@ -7,21 +7,23 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Instant;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
-import org.apache.tika.Tika;
-import org.apache.tika.exception.TikaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -37,17 +39,22 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.demo.event.EmployeeDeletedEvent;
+import com.example.demo.event.ResumeUpdatedEvent;
+import com.example.demo.exception.IndexNotReadyException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.index.ResumeSearchIndex;
 import com.example.demo.model.Employee;
-import com.example.demo.model.Job;
+import com.example.demo.model.EmployeeSummary;
 import com.example.demo.repository.EmployeeRepository;
-import com.example.demo.repository.JobRepository;
-import com.example.demo.service.AIParsingService;
-import com.example.demo.service.AIShortlistingService;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.service.EmployeeListingService;
+import com.example.demo.service.FileServingService;
+import com.example.demo.service.PhotoVariantService;
+import com.example.demo.service.ResumeIngestionService;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -56,29 +63,44 @@ public class EmployeeController {
 
     private static final Logger logger = LoggerFactory.getLogger(EmployeeController.class);
 
+    // types the public photo / resume endpoints may replay inline; anything else (text/html, SVG) is never stored
+    private static final Predicate<String> PHOTO_TYPES = t -> t.startsWith("image/") && !t.contains("svg");
+    private static final Predicate<String> RESUME_TYPES = Set.of(
+            "application/pdf",
+            "application/msword",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document")::contains;
+
     // ✅ Central Upload Directory (Downloads/uploads)
     private final String uploadDir = System.getProperty("user.dir") + "/uploads/";
 
     @Autowired
     private EmployeeRepository employeeRepository;
     
-    
     @Autowired
-    private JobRepository jobRepository; // optional - if you have jobs table to get requirements
-    
+    private ResumeIngestionService resumeIngestionService;
+
     @Autowired
-    private AIParsingService aiParsingService; // optional - if you have jobs table to get requirements
-    
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
-    private AIShortlistingService aiShortlistingService;
+    private EmployeeListingService employeeListingService;
 
-    
-    
-    
-    
-   // private final AIParsingService aiParsingService = null;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Tika tika = new Tika();
+    @Autowired
+    private ResumeSearchIndex resumeSearchIndex;
+
+    @Autowired
+    private FileServingService fileServingService;
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor taskExecutor;
+
+    // upload-resume runs the async pipeline when the request does not say otherwise
+    @Value("${app.ingestion.async-default:false}")
+    private boolean asyncIngestionDefault;
 
 	 
    
@@ -107,19 +129,73 @@ public class EmployeeController {
     // 🔹 Get all employees
     @GetMapping("/employees")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<Employee> getAllEmployees() {
+    public List<EmployeeSummary> getAllEmployees() {
         logger.info("📌 Request: Fetch all employees");
-        List<Employee> employees = employeeRepository.findAll();
+        // slim projection; the parsed resume JSON is only served by GET /employees/{id}
+        List<EmployeeSummary> employees = employeeListingService.listAll();
         logger.info("✅ Found {} employees", employees.size());
         return employees;
     }
 
+    // 🔹 Paged / filtered / sorted employee listing (keyset cursor for deep pages)
+    @GetMapping("/employees/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getEmployeesPage(@RequestParam(value = "q", required = false) String q,
+                                              @RequestParam(value = "department", required = false) String department,
+                                              @RequestParam(value = "designation", required = false) String designation,
+                                              @RequestParam(value = "status", required = false) String status,
+                                              @RequestParam(value = "skills", required = false) List<String> skills,
+                                              @RequestParam(value = "anySkills", required = false) List<String> anySkills,
+                                              @RequestParam(value = "notSkills", required = false) List<String> notSkills,
+                                              @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                              @RequestParam(value = "dir", defaultValue = "asc") String dir,
+                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                              @RequestParam(value = "page", required = false) Integer page,
+                                              @RequestParam(value = "size", defaultValue = "50") int size) {
+        logger.info("📌 Request: Employee page sort={} {} cursor={} page={} size={} skills={} anySkills={} notSkills={}",
+                sort, dir, cursor != null, page, size, skills, anySkills, notSkills);
+        try {
+            return ResponseEntity.ok(employeeListingService.page(q, department, designation, status,
+                    skills, anySkills, notSkills, sort, dir, cursor, page, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IndexNotReadyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 🔹 Full-text resume search (embedded Lucene index, BM25 ranked, highlighted passages)
+    @GetMapping("/employees/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchResumes(@RequestParam("q") String q,
+                                           @RequestParam(value = "size", defaultValue = "20") int size) throws IOException {
+        logger.info("📌 Request: Resume search q='{}' size={}", q, size);
+        if (q == null || q.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "q is required"));
+        }
+        if (!resumeSearchIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Resume search index is not available yet"));
+        }
+        try {
+            Map<String, Object> result = resumeSearchIndex.search(q, size);
+            logger.info("✅ Resume search matched {} resumes", result.get("total"));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     // 🔹 Create new employee
     @PostMapping("/employees")
     @PreAuthorize("hasRole('ADMIN')")
     public Employee createEmployee(@RequestBody Employee employee) {
         logger.info("📌 Request: Create employee for {}", employee.getEmail());
         Employee saved = employeeRepository.save(employee);
+        if (saved.getResumeSkills() != null && !saved.getResumeSkills().isBlank()) {
+            // skills given up front: let the in-memory indexes pick the employee up now, not at the next rebuild
+            eventPublisher.publishEvent(new ResumeUpdatedEvent(saved.getId()));
+        }
         logger.info("✅ Employee created with ID {}", saved.getId());
         return saved;
     }
@@ -167,6 +243,7 @@ public class EmployeeController {
                 .orElseThrow(() -> new ResourceNotFoundException("Employee with ID " + id + " not found"));
 
         employeeRepository.delete(employee);
+        eventPublisher.publishEvent(new EmployeeDeletedEvent(id));
         logger.info("✅ Employee deleted -> ID {}", id);
 
         Map<String, Boolean> response = new HashMap<>();
@@ -192,6 +269,7 @@ public class EmployeeController {
         file.transferTo(dest);
 
         employee.setProfilePhotoPath(filePath);
+        employee.setProfilePhotoContentType(detectContentType(file, dest.toPath(), PHOTO_TYPES, MediaType.APPLICATION_OCTET_STREAM_VALUE));
         employeeRepository.save(employee);
 
         logger.info("✅ Photo uploaded: {}", filePath);
@@ -199,11 +277,13 @@ public class EmployeeController {
     }
 
     // 🔹 Upload Resume
- // 🔹 Upload Resume (matches AIParsingService.parseResumeToJson signature)
+ // 🔹 Upload Resume (sync: parse + score before responding, without holding the request thread on OpenAI;
+ //    async: 202 + ingestion id, see ResumeIngestionService)
     @PostMapping("/employees/{id}/upload-resume")
-    public ResponseEntity<String> uploadResume(@PathVariable Long id,
-                                               @RequestParam("file") MultipartFile file,
-                                               @RequestParam(value = "jobId", required = false) Long jobId) throws IOException, TikaException {
+    public CompletableFuture<ResponseEntity<?>> uploadResume(@PathVariable Long id,
+                                          @RequestParam("file") MultipartFile file,
+                                          @RequestParam(value = "jobId", required = false) Long jobId,
+                                          @RequestParam(value = "async", required = false) Boolean async) throws Exception {
         logger.info("📤 Uploading resume for employee ID: {}", id);
 
         Employee employee = employeeRepository.findById(id)
@@ -228,249 +308,114 @@ public class EmployeeController {
         }
 
         logger.info("Saved uploaded file to {}", destPath.toString());
-
-        // --- Extract text from saved file using Tika ---
-        String resumeText = "";
-        try {
-            resumeText = tika.parseToString(destPath.toFile());
-        } catch (Exception e) {
-            logger.warn("Tika failed to extract text; using fallback empty string. error={}", e.getMessage());
-            resumeText = "";
-        }
-
-        // --- Prepare job description text if provided ---
-        String jobReqText = "";
-        if (jobId != null) {
-            jobReqText = jobRepository.findById(jobId)
-                    .map(Job::getDescription)
-                    .orElse("");
-        }
-
-        // --- Call AI parsing service (it expects resumeText + filename) ---
-        String modelJson = null;
-        try {
-            modelJson = aiParsingService.parseResumeToJson(resumeText, destPath.getFileName().toString());
-            logger.debug("AIParsingService returned (len={}): {}", modelJson == null ? 0 : modelJson.length(),
-                    (modelJson == null ? "null" : (modelJson.length() > 500 ? modelJson.substring(0, 500) + "...(truncated)" : modelJson)));
-        } catch (Exception e) {
-            logger.error("AIParsingService failed: {}", e.getMessage(), e);
-        }
-
-        // --- Convert JSON string returned by AI into Map (safe parsing) ---
-        Map<String, Object> parsed = Collections.emptyMap();
-        try {
-            if (modelJson != null && !modelJson.isBlank()) {
-                parsed = objectMapper.readValue(modelJson, new TypeReference<Map<String, Object>>() {});
-            } else {
-                // if model returned nothing, include raw extracted text as fallback
-                parsed = Collections.singletonMap("rawText", resumeText == null ? "" : resumeText);
-            }
-        } catch (Exception e) {
-            logger.warn("Failed to parse model JSON to Map — storing raw text. error={}", e.getMessage());
-            parsed = Collections.singletonMap("rawText", modelJson != null ? modelJson : resumeText);
-        }
-
-        // ----- Determine final score (use AIShortlistingService when job context provided) -----
-        double finalScoreValue = 0.0; // 0..100
-
-        // First attempt: if parsed contains a numeric 'score', prefer that (normalize if 0..1)
-        try {
-            Object scObj = parsed.getOrDefault("score", null);
-            if (scObj instanceof Number) {
-                double raw = ((Number) scObj).doubleValue();
-                finalScoreValue = (raw <= 1.0) ? raw * 100.0 : raw;
-            } else if (scObj != null) {
-                try {
-                    double raw = Double.parseDouble(String.valueOf(scObj));
-                    finalScoreValue = (raw <= 1.0) ? raw * 100.0 : raw;
-                } catch (Exception ex) {
-                    // ignore, fallback below
-                    finalScoreValue = 0.0;
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not read 'score' from parsed map: {}", e.getMessage());
-        }
-
-        // If job context provided, call AIShortlistingService to compute authoritative score (preferred)
-        if ((jobReqText != null && !jobReqText.isBlank())) {
-            try {
-                // prepare parsed JSON string for service: prefer modelJson (full), else convert parsed map to JSON
-                String parsedJsonForService = (modelJson != null && !modelJson.isBlank())
-                        ? modelJson
-                        : objectMapper.writeValueAsString(parsed);
-
-                Map<String, Object> scoreMap = aiShortlistingService.computeScore(parsedJsonForService, jobReqText, null);
-                Object fs = scoreMap.get("finalScore");
-                if (fs instanceof Number) {
-                    finalScoreValue = ((Number) fs).doubleValue();
-                } else if (fs != null) {
-                    try {
-                        finalScoreValue = Double.parseDouble(String.valueOf(fs));
-                    } catch (Exception ex) {
-                        logger.warn("AIShortlistingService returned non-numeric finalScore: {}", fs);
-                    }
-                }
-                logger.info("AI shortlisting returned: finalScore={}, details={}", finalScoreValue, scoreMap);
-            } catch (Exception ex) {
-                logger.warn("AIShortlistingService.computeScore failed, falling back to parsed/heuristic score: {}", ex.getMessage());
-                // keep finalScoreValue as whatever parsed/heuristic provided above (or 0)
-            }
-        } else {
-            // no job context: if we don't already have a parsed score, compute simple heuristic using skills vs empty job (skip)
-            if (finalScoreValue == 0.0) {
-                // try basic heuristic if parsed contained skills and jobReqText absent -> keep 0 and mark UPLOADED
-                // (we don't compute a job-match score without job description)
-            }
-        }
-
-        // --- save parsed fields to employee entity (store full parsed JSON for auditing) ---
-        String parsedJsonToStore;
-        try {
-            parsedJsonToStore = (modelJson != null && !modelJson.isBlank()) ? modelJson : objectMapper.writeValueAsString(parsed);
-        } catch (Exception e) {
-            parsedJsonToStore = String.valueOf(parsed.getOrDefault("rawText", resumeText));
-        }
-
-        employee.setResumePath(destPath.toString());
-        employee.setResumeParsedText(parsedJsonToStore);
-
-        // normalize skills safely (parsed may contain array or comma string)
-        List<String> skillsList = Collections.emptyList();
-        try {
-            Object skillsObj = parsed.getOrDefault("skills", Collections.emptyList());
-            if (skillsObj instanceof List) {
-                //noinspection unchecked
-                skillsList = (List<String>) skillsObj;
-            } else if (skillsObj instanceof String) {
-                skillsList = Arrays.stream(((String) skillsObj).split("[,;]"))
-                        .map(String::trim)
-                        .filter(s -> !s.isEmpty())
-                        .toList();
-            }
-        } catch (Exception ex) {
-            logger.warn("Could not normalize skills from parsed JSON: {}", ex.getMessage());
-        }
-        employee.setResumeSkills(String.join(",", skillsList));
-
-        // ensure finalScoreValue is within 0..100
-        if (Double.isNaN(finalScoreValue) || finalScoreValue < 0.0) finalScoreValue = 0.0;
-        if (finalScoreValue > 100.0) finalScoreValue = 100.0;
-
-        employee.setResumeScore(finalScoreValue);
-        employee.setResumeParsedAt(java.time.LocalDateTime.now());
-
-        // bessere UX: if no job context provided, keep status 'UPLOADED'
-        if (jobReqText == null || jobReqText.isBlank()) {
-            employee.setResumeStatus("UPLOADED");
-        } else {
-            employee.setResumeStatus(finalScoreValue >= 60.0 ? "SHORTLISTED" : "REJECTED");
+        String contentType = detectContentType(file, destPath, RESUME_TYPES, "application/pdf");
+
+        if (async != null ? async : asyncIngestionDefault) {
+            String ingestionId = resumeIngestionService.submit(employee, destPath, contentType, jobId);
+            Map<String, Object> body = new HashMap<>();
+            body.put("ingestionId", ingestionId);
+            body.put("employeeId", id);
+            body.put("status", ResumeIngestionService.STATUS_QUEUED);
+            body.put("statusUrl", "/api/v1/employees/resume-ingestions/" + ingestionId);
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().body(body));
         }
 
-        employeeRepository.save(employee);
-
-        logger.info("✅ Resume uploaded + parsed: {} , normalizedScore={}", destPath.toString(), finalScoreValue);
-
-        return ResponseEntity.ok("✅ Resume uploaded and parsed successfully!");
+        return resumeIngestionService.ingestAsync(employee, destPath, contentType, jobId, taskExecutor)
+                .<ResponseEntity<?>>thenApply(saved -> {
+                    logger.info("✅ Resume uploaded + parsed: {} , normalizedScore={}", destPath.toString(), saved.getResumeScore());
+                    return ResponseEntity.ok("✅ Resume uploaded and parsed successfully!");
+                });
     }
 
-    
-        
-    
-    
-    //preview
-    
- // 🔹 Common Imports (अगर ऊपर नहीं हैं तो जोड़ो)
-   
+    // 🔹 Async resume ingestion progress (QUEUED → EXTRACTING → PARSING → SCORING → PERSISTING → final status)
+    @GetMapping("/employees/resume-ingestions/{ingestionId}")
+    public ResponseEntity<Map<String, Object>> getResumeIngestionStatus(@PathVariable String ingestionId) {
+        Employee employee = employeeRepository.findByResumeIngestionId(ingestionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Resume ingestion " + ingestionId + " not found"));
+        return ResponseEntity.ok(resumeIngestionService.describe(employee));
+    }
 
-    // ✅ View / Download Profile Photo
+    // ✅ View / Download Profile Photo (?size=thumb|medium|original; variants are generated on first request)
     @GetMapping("/employees/{id}/photo")
-    public ResponseEntity<Resource> viewEmployeePhoto(@PathVariable Long id) throws IOException {
+    public void viewEmployeePhoto(@PathVariable Long id,
+                                  @RequestParam(value = "size", defaultValue = PhotoVariantService.ORIGINAL) String size,
+                                  HttpServletRequest request,
+                                  HttpServletResponse response) throws IOException {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
 
         if (employee.getProfilePhotoPath() == null) {
-            return ResponseEntity.notFound().build();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
         Path filePath = Paths.get(employee.getProfilePhotoPath()).normalize();
-
         if (!Files.exists(filePath)) {
-            return ResponseEntity.notFound().build();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
-        String contentType = Files.probeContentType(filePath);
-        if (contentType == null) {
-            contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        PhotoVariantService.Variant variant = photoVariantService.variant(filePath, size);
+        if (variant != null) {
+            fileServingService.serve(request, response, variant.getPath(), variant.getContentType(), "inline");
+            return;
         }
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filePath.getFileName() + "\"");
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(Files.newInputStream(filePath)));
+        fileServingService.serve(request, response, filePath,
+                allowedOr(employee.getProfilePhotoContentType(), PHOTO_TYPES, MediaType.APPLICATION_OCTET_STREAM_VALUE), "inline");
     }
 
-    // ✅ View Resume in Browser (PDF inline preview)
+    // ✅ View Resume in Browser (PDF inline preview; Range requests let the viewer load progressively)
     @GetMapping("/employees/{id}/resume/view")
-    public ResponseEntity<Resource> viewResume(@PathVariable Long id) throws IOException {
+    public void viewResume(@PathVariable Long id, HttpServletRequest request,
+                           HttpServletResponse response) throws IOException {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
 
         if (employee.getResumePath() == null) {
-            return ResponseEntity.notFound().build();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
         Path filePath = Paths.get(employee.getResumePath()).normalize();
-
-        if (!Files.exists(filePath)) {
-            return ResponseEntity.notFound().build();
-        }
-
-        String contentType = Files.probeContentType(filePath);
-        if (contentType == null) {
-            contentType = "application/pdf"; // fallback for resumes
-        }
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filePath.getFileName() + "\"");
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(Files.newInputStream(filePath)));
+        String stored = employee.getResumeContentType() != null ? employee.getResumeContentType() : probeOr(filePath, "application/pdf");
+        String contentType = allowedOr(stored, RESUME_TYPES, "application/pdf");
+        fileServingService.serve(request, response, filePath, contentType, "inline");
     }
 
     // ✅ Download Resume (Attachment)
     @GetMapping("/employees/{id}/resume/download")
-    public ResponseEntity<Resource> downloadResume(@PathVariable Long id) throws IOException {
+    public void downloadResume(@PathVariable Long id, HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
 
         if (employee.getResumePath() == null) {
-            return ResponseEntity.notFound().build();
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
 
         Path filePath = Paths.get(employee.getResumePath()).normalize();
+        fileServingService.serve(request, response, filePath, employee.getResumeContentType(), "attachment");
+    }
 
-        if (!Files.exists(filePath)) {
-            return ResponseEntity.notFound().build();
-        }
-
-        String contentType = Files.probeContentType(filePath);
-        if (contentType == null) {
-            contentType = "application/octet-stream";
-        }
+    // content type of an upload: probed from the saved file, else what the client declared, and only if allowed
+    private static String detectContentType(MultipartFile file, Path saved, Predicate<String> allowed, String fallback) {
+        String probed = probeOr(saved, null);
+        if (probed != null && allowed.test(probed.toLowerCase(Locale.ROOT))) return probed;
+        return allowedOr(file.getContentType(), allowed, fallback);
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filePath.getFileName() + "\"");
+    private static String allowedOr(String contentType, Predicate<String> allowed, String fallback) {
+        return (contentType != null && allowed.test(contentType.toLowerCase(Locale.ROOT))) ? contentType : fallback;
+    }
 
-        return ResponseEntity.ok()
-                .headers(headers)
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(new InputStreamResource(Files.newInputStream(filePath)));
+    private static String probeOr(Path path, String fallback) {
+        try {
+            String probed = Files.probeContentType(path);
+            return probed != null ? probed : fallback;
+        } catch (IOException e) {
+            return fallback;
+        }
     }
 
 }
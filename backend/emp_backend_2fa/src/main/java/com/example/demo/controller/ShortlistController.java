@@ -1,20 +1,29 @@
 package com.example.demo.controller;
 
+import com.example.demo.exception.IndexNotReadyException;
+import com.example.demo.index.CandidateVectorIndex;
 import com.example.demo.model.Employee;
 import com.example.demo.model.Job;
+import com.example.demo.model.ParsedResume;
 import com.example.demo.model.ShortlistResult;
 import com.example.demo.repository.EmployeeRepository;
 import com.example.demo.repository.JobRepository;
 import com.example.demo.repository.ShortlistResultRepository;
 import com.example.demo.service.AIShortlistingService;
+import com.example.demo.service.CandidateRankingService;
+import com.example.demo.service.ParsedResumeCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api")
@@ -26,16 +35,28 @@ public class ShortlistController {
     private final JobRepository jobRepo;
     private final AIShortlistingService shortlistingService;
     private final ShortlistResultRepository shortlistResultRepository;
+    private final CandidateRankingService rankingService;
+    private final CandidateVectorIndex candidateIndex;
+    private final ParsedResumeCache parsedResumeCache;
+    private final Executor taskExecutor;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public ShortlistController(EmployeeRepository employeeRepo,
                                JobRepository jobRepo,
                                AIShortlistingService shortlistingService,
-                               ShortlistResultRepository shortlistResultRepository) {
+                               ShortlistResultRepository shortlistResultRepository,
+                               CandidateRankingService rankingService,
+                               CandidateVectorIndex candidateIndex,
+                               ParsedResumeCache parsedResumeCache,
+                               @Qualifier("applicationTaskExecutor") Executor taskExecutor) {
         this.employeeRepo = employeeRepo;
         this.jobRepo = jobRepo;
         this.shortlistingService = shortlistingService;
         this.shortlistResultRepository = shortlistResultRepository;
+        this.rankingService = rankingService;
+        this.candidateIndex = candidateIndex;
+        this.parsedResumeCache = parsedResumeCache;
+        this.taskExecutor = taskExecutor;
     }
 
     /**
@@ -45,22 +66,23 @@ public class ShortlistController {
      * - Uses job.requiredSkills OR job.requiredSkillsJson OR job.description as job text.
      * - If job has a minExperienceYears field it will be used; otherwise null is passed.
      *
-     * Returns the score breakdown produced by AIShortlistingService.
+     * Returns the score breakdown produced by AIShortlistingService. The request thread is released while the
+     * embeddings are in flight; persisting the result runs on the application task executor afterwards.
      */
     @PostMapping("/shortlist/{jobId}/employee/{employeeId}")
-    public ResponseEntity<?> score(@PathVariable Long jobId, @PathVariable Long employeeId) {
+    public CompletableFuture<ResponseEntity<?>> score(@PathVariable Long jobId, @PathVariable Long employeeId) {
         try {
             Optional<Job> jobOpt = jobRepo.findById(jobId);
             Optional<Employee> empOpt = employeeRepo.findById(employeeId);
             if (jobOpt.isEmpty() || empOpt.isEmpty()) {
-                return ResponseEntity.badRequest().body(Map.of("error", "job/employee not found"));
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(Map.of("error", "job/employee not found")));
             }
 
             Job job = jobOpt.get();
             Employee emp = empOpt.get();
 
-            // Prefer parsed JSON stored in resumeParsedText, else fallback to resumeSkills string
-            String parsedJson = emp.getResumeParsedText() != null ? emp.getResumeParsedText() : "";
+            // parsed JSON stored in resumeParsedText, digested once per upload (ParsedResumeCache)
+            ParsedResume resume = parsedResumeCache.forEmployee(emp);
             String jobSkillsText = "";
 
             // Try common getters that different Job classes might have
@@ -91,9 +113,17 @@ public class ShortlistController {
                 // no minExpYears available — that's fine, pass null
             }
 
-            // Compute score using AIShortlistingService
-            Map<String, Object> scoreMap = shortlistingService.computeScore(parsedJson, jobSkillsText, minExpYears);
+            // Compute score using AIShortlistingService, then persist off the Netty thread that completes it
+            return shortlistingService.computeScoreAsync(resume, jobSkillsText, null, minExpYears)
+                    .<ResponseEntity<?>>thenApplyAsync(scoreMap -> saveScore(jobId, employeeId, emp, scoreMap), taskExecutor)
+                    .exceptionally(e -> scoringFailed(jobId, employeeId, e));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(scoringFailed(jobId, employeeId, e));
+        }
+    }
 
+    private ResponseEntity<?> saveScore(Long jobId, Long employeeId, Employee emp, Map<String, Object> scoreMap) {
+        try {
             // Ensure finalScore exists and is numeric
             double finalScore = 0.0;
             Object fs = scoreMap.get("finalScore");
@@ -125,8 +155,88 @@ public class ShortlistController {
 
             return ResponseEntity.ok(scoreMap);
         } catch (Exception e) {
-            logger.error("Scoring failed for jobId={} employeeId={}: {}", jobId, employeeId, e.getMessage(), e);
-            return ResponseEntity.status(500).body(Map.of("error", "Scoring failed", "message", e.getMessage()));
+            return scoringFailed(jobId, employeeId, e);
+        }
+    }
+
+    private ResponseEntity<?> scoringFailed(Long jobId, Long employeeId, Throwable e) {
+        Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+        logger.error("Scoring failed for jobId={} employeeId={}: {}", jobId, employeeId, cause.getMessage(), cause);
+        return ResponseEntity.status(500).body(Map.of("error", "Scoring failed", "message", String.valueOf(cause.getMessage())));
+    }
+
+    /**
+     * Rank every employee with a parsed resume against a job in one call.
+     * - Scores fan out over a bounded executor, sharing one job embedding.
+     * - All scores are bulk-inserted into shortlist_results; employee status is left untouched.
+     *
+     * - mode=hybrid only weighs the candidates found by the lexical (BM25) and vector indexes, fused by
+     *   reciprocal rank; nothing is persisted.
+     *
+     * Returns the top-K candidates (highest finalScore first) with their breakdowns.
+     */
+    @PostMapping("/shortlist/{jobId}/rank")
+    public ResponseEntity<?> rank(@PathVariable Long jobId,
+                                  @RequestParam(value = "topK", defaultValue = "20") int topK,
+                                  @RequestParam(value = "mode", defaultValue = "full") String mode) {
+        Optional<Job> jobOpt = jobRepo.findById(jobId);
+        if (jobOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "job not found"));
+        }
+        try {
+            if ("hybrid".equalsIgnoreCase(mode)) {
+                return ResponseEntity.ok(rankingService.rankCandidatesHybrid(jobOpt.get(), Math.min(topK, 500)));
+            }
+            return ResponseEntity.ok(rankingService.rankCandidates(jobOpt.get(), Math.min(topK, 500)));
+        } catch (IndexNotReadyException e) {
+            return ResponseEntity.status(503).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Ranking failed for jobId={}: {}", jobId, e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", "Ranking failed", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Top-K candidates for a job by skills-embedding similarity, from the in-memory candidate index.
+     * Much cheaper than /rank (no per-candidate scoring, nothing persisted) - meant for sourcing/search UIs.
+     */
+    @GetMapping("/shortlist/{jobId}/candidates")
+    public ResponseEntity<?> nearestCandidates(@PathVariable Long jobId,
+                                               @RequestParam(value = "k", defaultValue = "20") int k) {
+        Optional<Job> jobOpt = jobRepo.findById(jobId);
+        if (jobOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "job not found"));
+        }
+        if (!candidateIndex.isReady()) {
+            return ResponseEntity.status(503).body(Map.of("error", "Candidate index is not ready yet, use /rank or retry shortly"));
+        }
+        try {
+            return ResponseEntity.ok(rankingService.nearestCandidates(jobOpt.get(), Math.min(k, 500)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Nearest-candidate lookup failed for jobId={}: {}", jobId, e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", "Lookup failed", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    /**
+     * Best matching jobs for one candidate (employee profile page).
+     * - Every job is scored in parallel against the candidate's parsed resume, using precomputed job embeddings.
+     * - Read-only: no shortlist rows are written and the employee status is not changed.
+     */
+    @GetMapping("/shortlist/employee/{employeeId}/jobs")
+    public ResponseEntity<?> matchingJobs(@PathVariable Long employeeId,
+                                          @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        Optional<Employee> empOpt = employeeRepo.findById(employeeId);
+        if (empOpt.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "employee not found"));
+        }
+        try {
+            return ResponseEntity.ok(rankingService.rankJobsForCandidate(empOpt.get(), Math.min(limit, 100)));
+        } catch (Exception e) {
+            logger.error("Job matching failed for employeeId={}: {}", employeeId, e.getMessage(), e);
+            return ResponseEntity.status(500).body(Map.of("error", "Job matching failed", "message", String.valueOf(e.getMessage())));
         }
     }
 }
@@ -0,0 +1,17 @@
+package com.example.demo.event;
+
+/**
+ * Published after an employee row has been deleted, so in-memory indexes can drop it.
+ */
+public class EmployeeDeletedEvent {
+
+    private final long employeeId;
+
+    public EmployeeDeletedEvent(long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public long getEmployeeId() {
+        return employeeId;
+    }
+}
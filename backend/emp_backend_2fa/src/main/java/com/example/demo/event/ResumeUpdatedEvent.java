@@ -0,0 +1,19 @@
+package com.example.demo.event;
+
+/**
+ * Published after an employee's parsed resume has been persisted (sync or async upload), or an employee was
+ * created with resume skills.
+ * In-memory indexes listen to it to refresh that employee's entry.
+ */
+public class ResumeUpdatedEvent {
+
+    private final long employeeId;
+
+    public ResumeUpdatedEvent(long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public long getEmployeeId() {
+        return employeeId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// an in-memory index needed for the request is still being built at startup; the client should retry
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class IndexNotReadyException extends RuntimeException {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1L;
+
+	public IndexNotReadyException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.example.demo.index;
+
+import com.example.demo.event.EmployeeDeletedEvent;
+import com.example.demo.event.ResumeUpdatedEvent;
+import com.example.demo.model.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.service.AIShortlistingService;
+import com.example.demo.service.ParsedResumeCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory index of candidate skill embeddings, used for "top K candidates for job X" without scoring every employee.
+ *
+ * Built once when the application is ready (vectors come from the embedding store, so a warm store means no
+ * remote calls) and then kept current from {@link ResumeUpdatedEvent} / {@link EmployeeDeletedEvent}.
+ * All maintenance runs on one background thread, so updates for the same employee apply in order and never
+ * block the request that triggered them. Queries read the index directly.
+ */
+@Component
+public class CandidateVectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CandidateVectorIndex.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final AIShortlistingService shortlistingService;
+    private final ParsedResumeCache parsedResumeCache;
+    private final FlatVectorIndex index = new FlatVectorIndex();
+
+    private final ExecutorService maintenance = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "candidate-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${ai.index.enabled:true}")
+    private boolean enabled;
+    @Value("${ai.index.rebuild-batch-size:256}")
+    private int rebuildBatchSize;
+
+    private volatile boolean ready;
+
+    public CandidateVectorIndex(EmployeeRepository employeeRepository,
+                                AIShortlistingService shortlistingService,
+                                ParsedResumeCache parsedResumeCache,
+                                MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.shortlistingService = shortlistingService;
+        this.parsedResumeCache = parsedResumeCache;
+        meterRegistry.gauge("candidate.index.size", index, FlatVectorIndex::size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * True once the startup build has finished; before that callers should fall back to a full scan.
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Nearest candidates to the job embedding by cosine similarity, best first.
+     */
+    public List<FlatVectorIndex.Hit> nearest(float[] jobEmbedding, int k) {
+        return index.topK(jobEmbedding, k);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            logger.info("Candidate vector index disabled (ai.index.enabled=false)");
+            return;
+        }
+        maintenance.execute(this::rebuild);
+    }
+
+    @EventListener
+    public void onResumeUpdated(ResumeUpdatedEvent event) {
+        if (enabled) maintenance.execute(() -> refresh(event.getEmployeeId()));
+    }
+
+    @EventListener
+    public void onEmployeeDeleted(EmployeeDeletedEvent event) {
+        if (enabled) maintenance.execute(() -> index.remove(event.getEmployeeId()));
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            index.clear();
+            Map<Long, String> pending = new LinkedHashMap<>();
+            for (Employee emp : employeeRepository.findByResumeParsedTextIsNotNull()) {
+                String skills = parsedResumeCache.forEmployee(emp).getSkillsText();
+                if (skills.isBlank()) continue;
+                pending.put(emp.getId(), skills);
+                if (pending.size() >= rebuildBatchSize) {
+                    load(pending);
+                    pending.clear();
+                }
+            }
+            load(pending);
+            ready = true;
+            logger.info("Candidate vector index built: {} candidates in {} ms", index.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Candidate vector index build failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void load(Map<Long, String> skillsById) {
+        if (skillsById.isEmpty()) return;
+        Map<String, float[]> vectors = shortlistingService.embedAll(new ArrayList<>(skillsById.values()));
+        for (Map.Entry<Long, String> e : skillsById.entrySet()) {
+            float[] vec = vectors.get(e.getValue());
+            if (vec != null) index.upsert(e.getKey(), vec);
+        }
+    }
+
+    private void refresh(long employeeId) {
+        try {
+            Employee emp = employeeRepository.findById(employeeId).orElse(null);
+            String skills = emp == null ? "" : parsedResumeCache.forEmployee(emp).getSkillsText();
+            float[] vec = skills.isBlank() ? null : shortlistingService.embed(skills);
+            if (vec == null || !index.upsert(employeeId, vec)) {
+                index.remove(employeeId);
+            }
+        } catch (Exception e) {
+            logger.warn("Candidate vector index refresh failed for employeeId={}: {}", employeeId, e.getMessage());
+        }
+    }
+}
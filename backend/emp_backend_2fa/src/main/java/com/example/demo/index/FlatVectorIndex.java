@@ -0,0 +1,221 @@
+package com.example.demo.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Exact nearest-neighbour index over L2-normalised float vectors, stored row-major in one flat float[].
+ *
+ * Vectors are normalised on insert, so cosine similarity is a plain dot product over a contiguous slice;
+ * the scan loop is written with independent accumulators so the JIT can unroll / auto-vectorise it.
+ * Removal swaps the last row into the hole, keeping the storage dense. Large scans are split into
+ * chunks scored in parallel and merged.
+ *
+ * Thread-safe: queries share a read lock, upserts/removals take the write lock.
+ */
+public class FlatVectorIndex {
+
+    private static final int PARALLEL_THRESHOLD = 4096;
+    private static final int CHUNK_ROWS = 2048;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowById = new HashMap<>();
+
+    private int dims = -1;
+    private int size;
+    private long[] ids = new long[0];
+    private float[] data = new float[0];
+
+    public static final class Hit {
+        private final long id;
+        private final float score;
+
+        Hit(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() { return id; }
+        public float getScore() { return score; }
+    }
+
+    /**
+     * Insert or replace the vector for id. Vectors whose dimension differs from the index are rejected
+     * (happens only if the embeddings model changes; the index is then rebuilt).
+     */
+    public boolean upsert(long id, float[] vector) {
+        if (vector == null || vector.length == 0) return false;
+        float[] unit = normalise(vector);
+        if (unit == null) return false;
+
+        lock.writeLock().lock();
+        try {
+            if (dims < 0) dims = unit.length;
+            if (unit.length != dims) return false;
+
+            Integer row = rowById.get(id);
+            if (row == null) {
+                ensureCapacity(size + 1);
+                row = size++;
+                rowById.put(id, row);
+                ids[row] = id;
+            }
+            System.arraycopy(unit, 0, data, row * dims, dims);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(id);
+            if (row == null) return false;
+            int last = --size;
+            if (row != last) {
+                long movedId = ids[last];
+                ids[row] = movedId;
+                System.arraycopy(data, last * dims, data, row * dims, dims);
+                rowById.put(movedId, row);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowById.clear();
+            size = 0;
+            dims = -1;
+            ids = new long[0];
+            data = new float[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return rowById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The k most similar ids to the query (cosine), best first.
+     */
+    public List<Hit> topK(float[] query, int k) {
+        float[] q = normalise(query);
+        if (q == null || k <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            if (size == 0 || q.length != dims) return List.of();
+            int n = size;
+            PriorityQueue<Hit> best;
+            if (n < PARALLEL_THRESHOLD) {
+                best = scan(q, 0, n, k);
+            } else {
+                int chunks = (n + CHUNK_ROWS - 1) / CHUNK_ROWS;
+                best = IntStream.range(0, chunks).parallel()
+                        .mapToObj(c -> scan(q, c * CHUNK_ROWS, Math.min(n, (c + 1) * CHUNK_ROWS), k))
+                        .reduce(newHeap(k), (a, b) -> merge(a, b, k));
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(Comparator.comparingDouble((Hit h) -> h.score).reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PriorityQueue<Hit> scan(float[] q, int fromRow, int toRow, int k) {
+        PriorityQueue<Hit> heap = newHeap(k);
+        float floor = Float.NEGATIVE_INFINITY;
+        for (int row = fromRow; row < toRow; row++) {
+            float s = dot(q, data, row * dims, dims);
+            if (heap.size() < k) {
+                heap.offer(new Hit(ids[row], s));
+                if (heap.size() == k) floor = heap.peek().score;
+            } else if (s > floor) {
+                heap.poll();
+                heap.offer(new Hit(ids[row], s));
+                floor = heap.peek().score;
+            }
+        }
+        return heap;
+    }
+
+    private static PriorityQueue<Hit> merge(PriorityQueue<Hit> a, PriorityQueue<Hit> b, int k) {
+        PriorityQueue<Hit> out = newHeap(k);
+        for (Hit h : a) offerBounded(out, h, k);
+        for (Hit h : b) offerBounded(out, h, k);
+        return out;
+    }
+
+    private static void offerBounded(PriorityQueue<Hit> heap, Hit h, int k) {
+        heap.offer(h);
+        if (heap.size() > k) heap.poll();
+    }
+
+    private static PriorityQueue<Hit> newHeap(int k) {
+        return new PriorityQueue<>(k + 1, Comparator.comparingDouble((Hit h) -> h.score));
+    }
+
+    // four independent accumulators: breaks the add dependency chain so the loop pipelines/vectorises
+    static float dot(float[] q, float[] m, int offset, int len) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        int upper = len & ~3;
+        for (; i < upper; i += 4) {
+            s0 += q[i] * m[offset + i];
+            s1 += q[i + 1] * m[offset + i + 1];
+            s2 += q[i + 2] * m[offset + i + 2];
+            s3 += q[i + 3] * m[offset + i + 3];
+        }
+        for (; i < len; i++) {
+            s0 += q[i] * m[offset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static float[] normalise(float[] v) {
+        if (v == null || v.length == 0) return null;
+        double norm = 0;
+        for (float x : v) norm += (double) x * x;
+        if (norm == 0) return null;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        float[] out = new float[v.length];
+        for (int i = 0; i < v.length; i++) out[i] = v[i] * inv;
+        return out;
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= ids.length) return;
+        int cap = Math.max(rows, Math.max(16, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, cap);
+        data = Arrays.copyOf(data, cap * dims);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.index;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keyword overlap between a job's skills text and a candidate's text, the fallback when embeddings are
+ * unavailable. The job side is compiled once into an open-addressing token dictionary; a candidate text
+ * is then scanned in one pass, hashing each token in place, without lower-casing, regex or substrings.
+ *
+ * Tokens are runs of ASCII letters/digits (case-folded), everything else separates; single-character
+ * tokens are ignored. Matching is whole-token, so "java" no longer matches inside "javascript".
+ *
+ * Immutable and thread-safe, so one instance per job text can be shared by all scoring threads.
+ */
+public final class KeywordMatcher {
+
+    private static final KeywordMatcher EMPTY = new KeywordMatcher(List.of());
+
+    private final char[][] tokens;
+    private final int[] hashes;
+    private final int[] slots; // token index + 1, 0 = free
+    private final int mask;
+
+    private KeywordMatcher(List<String> distinctTokens) {
+        int n = distinctTokens.size();
+        this.tokens = new char[n][];
+        this.hashes = new int[n];
+        int capacity = Integer.highestOneBit(Math.max(2, n * 2 - 1)) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < n; i++) {
+            char[] token = distinctTokens.get(i).toCharArray();
+            int h = 0;
+            for (char c : token) h = 31 * h + c;
+            tokens[i] = token;
+            hashes[i] = h;
+            int slot = spread(h) & mask;
+            while (slots[slot] != 0) slot = (slot + 1) & mask;
+            slots[slot] = i + 1;
+        }
+    }
+
+    /**
+     * Compile the job side. Blank text gives a matcher that scores everything 0.
+     */
+    public static KeywordMatcher compile(String jobText) {
+        if (jobText == null || jobText.isBlank()) return EMPTY;
+
+        Set<String> distinct = new LinkedHashSet<>();
+        StringBuilder token = new StringBuilder();
+        for (int i = 0, n = jobText.length(); i <= n; i++) {
+            char c = i < n ? fold(jobText.charAt(i)) : 0;
+            if (c != 0) {
+                token.append(c);
+            } else {
+                if (token.length() > 1) distinct.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        return distinct.isEmpty() ? EMPTY : new KeywordMatcher(new ArrayList<>(distinct));
+    }
+
+    public int size() {
+        return tokens.length;
+    }
+
+    /**
+     * Fraction of distinct job tokens present in the text (0..1).
+     */
+    public double score(String text) {
+        if (tokens.length == 0 || text == null || text.isEmpty()) return 0.0;
+
+        long[] seen = new long[(tokens.length + 63) >>> 6];
+        int matched = 0;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            char c = fold(text.charAt(i));
+            if (c == 0) {
+                i++;
+                continue;
+            }
+            int start = i;
+            int h = 0;
+            do {
+                h = 31 * h + c;
+                i++;
+            } while (i < n && (c = fold(text.charAt(i))) != 0);
+
+            int len = i - start;
+            if (len < 2) continue;
+            int idx = find(text, start, len, h);
+            if (idx >= 0 && (seen[idx >>> 6] & (1L << idx)) == 0) {
+                seen[idx >>> 6] |= 1L << idx;
+                if (++matched == tokens.length) break;
+            }
+        }
+        return (double) matched / (double) tokens.length;
+    }
+
+    private int find(String text, int start, int len, int h) {
+        int slot = spread(h) & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            int idx = entry - 1;
+            if (hashes[idx] == h && sameToken(tokens[idx], text, start, len)) return idx;
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean sameToken(char[] token, String text, int start, int len) {
+        if (token.length != len) return false;
+        for (int k = 0; k < len; k++) {
+            if (token[k] != fold(text.charAt(start + k))) return false;
+        }
+        return true;
+    }
+
+    // ASCII letters lower-cased, digits kept, anything else is a separator (0)
+    private static char fold(char c) {
+        if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) return c;
+        if (c >= 'A' && c <= 'Z') return (char) (c + ('a' - 'A'));
+        return 0;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
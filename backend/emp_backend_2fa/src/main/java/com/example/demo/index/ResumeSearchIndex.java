@@ -0,0 +1,414 @@
+package com.example.demo.index;
+
+import com.example.demo.event.EmployeeDeletedEvent;
+import com.example.demo.event.ResumeUpdatedEvent;
+import com.example.demo.model.Employee;
+import com.example.demo.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Embedded Lucene full-text index over the parsed resumes (Employee.resumeParsedText), stored on local disk,
+ * so searching resumes needs neither a full table scan nor an external search cluster.
+ *
+ * One document per employee with the parsed JSON split into skills / experience / education / other text.
+ * Queries are ranked with BM25 (field boosts favour skills) and come back with highlighted passages.
+ * The index is rebuilt from MySQL when it is empty at startup (e.g. a fresh container) and then kept current
+ * from {@link ResumeUpdatedEvent} / {@link EmployeeDeletedEvent} on one background thread, like
+ * {@link CandidateVectorIndex}; searches see an update after the next near-real-time refresh, and changes
+ * are committed to disk every {@code app.search.commit-interval-ms}.
+ */
+@Component
+public class ResumeSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String SKILLS = "skills";
+    private static final String EXPERIENCE = "experience";
+    private static final String EDUCATION = "education";
+    private static final String TEXT = "text";
+    private static final String DEPARTMENT = "department";
+    private static final String DESIGNATION = "designation";
+
+    private static final String[] SEARCH_FIELDS = { NAME, SKILLS, EXPERIENCE, EDUCATION, TEXT };
+    private static final String[] HIGHLIGHT_FIELDS = { SKILLS, EXPERIENCE, EDUCATION, TEXT };
+    private static final Map<String, Float> BOOSTS = Map.of(NAME, 2.0f, SKILLS, 3.0f, EXPERIENCE, 1.5f,
+            EDUCATION, 1.0f, TEXT, 1.0f);
+    // each word expands to one clause per search field; stays well under IndexSearcher's 1024 clause limit
+    private static final int MAX_MATCH_TERMS = 150;
+    // contact details stay out of the searchable text
+    private static final Set<String> SKIPPED_KEYS = Set.of("email", "phone", "mobile", "address", "score");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final EmployeeRepository employeeRepository;
+    private final MeterRegistry meterRegistry;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    private final ExecutorService maintenance = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "resume-search-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+    @Value("${app.search.index-path:${app.upload.base}/search-index}")
+    private String indexPath;
+    @Value("${app.search.rebuild-on-start:false}")
+    private boolean rebuildOnStart;
+    @Value("${app.search.max-results:100}")
+    private int maxResults;
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    public ResumeSearchIndex(EmployeeRepository employeeRepository, MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+        try {
+            Path path = Path.of(indexPath);
+            Files.createDirectories(path);
+            directory = FSDirectory.open(path);
+            IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setSimilarity(new BM25Similarity());
+            writer = new IndexWriter(directory, config);
+            searcherManager = new SearcherManager(writer, null);
+            meterRegistry.gauge("resume.search.index.docs", writer, w -> w.getDocStats().numDocs);
+            logger.info("Resume search index opened at {}", path.toAbsolutePath());
+        } catch (IOException e) {
+            logger.error("Resume search index unavailable at {}: {}", indexPath, e.getMessage(), e);
+            enabled = false;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // no interrupt: an IndexWriter interrupted mid-write closes itself with an exception
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (searcherManager != null) searcherManager.close();
+            if (writer != null) writer.close(); // commits pending changes
+            if (directory != null) directory.close();
+        } catch (IOException e) {
+            logger.warn("Resume search index close failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * BM25-ranked search. Lucene query syntax is accepted ({@code skills:kafka AND "spring boot"}); input that
+     * does not parse is searched as plain terms.
+     */
+    public Map<String, Object> search(String queryText, int size) throws IOException {
+        Query query = parse(queryText);
+        int limit = Math.max(1, Math.min(size, maxResults));
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query, limit);
+            UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                    .withFormatter(new DefaultPassageFormatter("<em>", "</em>", " … ", true))
+                    .build();
+            int[] passages = new int[HIGHLIGHT_FIELDS.length];
+            Arrays.fill(passages, 2);
+            Map<String, String[]> highlights = highlighter.highlightFields(HIGHLIGHT_FIELDS, query, top, passages);
+
+            StoredFields stored = searcher.storedFields();
+            List<Map<String, Object>> hits = new ArrayList<>(top.scoreDocs.length);
+            for (int i = 0; i < top.scoreDocs.length; i++) {
+                ScoreDoc sd = top.scoreDocs[i];
+                Document doc = stored.document(sd.doc);
+                Map<String, Object> hit = new LinkedHashMap<>();
+                hit.put("id", Long.parseLong(doc.get(ID)));
+                hit.put("name", doc.get(NAME));
+                hit.put("department", doc.get(DEPARTMENT));
+                hit.put("designation", doc.get(DESIGNATION));
+                hit.put("score", sd.score);
+
+                Map<String, String> snippets = new LinkedHashMap<>();
+                for (String field : HIGHLIGHT_FIELDS) {
+                    String snippet = highlights.get(field)[i];
+                    if (snippet != null && !snippet.isBlank()) snippets.put(field, snippet);
+                }
+                hit.put("highlights", snippets);
+                hits.add(hit);
+            }
+
+            Map<String, Object> res = new LinkedHashMap<>();
+            res.put("query", queryText);
+            res.put("total", top.totalHits.value);
+            res.put("items", hits);
+            return res;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Best {@code n} resumes for a free-text description (e.g. a job's required skills), as a plain OR of its
+     * words ranked by BM25. Query syntax in the text is escaped; only the first distinct words are used.
+     */
+    public List<FlatVectorIndex.Hit> topMatches(String text, int n) throws IOException {
+        if (text == null || text.isBlank()) return List.of();
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.split("[\\s,;|]+")) {
+            if (!word.isBlank()) words.add(word.toLowerCase(Locale.ROOT));
+            if (words.size() == MAX_MATCH_TERMS) break;
+        }
+        if (words.isEmpty()) return List.of();
+
+        Query query;
+        try {
+            query = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, BOOSTS)
+                    .parse(QueryParser.escape(String.join(" ", words)));
+        } catch (ParseException e) {
+            return List.of();
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query, Math.max(1, n));
+            StoredFields stored = searcher.storedFields();
+            List<FlatVectorIndex.Hit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc sd : top.scoreDocs) {
+                hits.add(new FlatVectorIndex.Hit(Long.parseLong(stored.document(sd.doc, Set.of(ID)).get(ID)), sd.score));
+            }
+            return hits;
+        } catch (IndexSearcher.TooManyClauses e) {
+            logger.warn("Resume match query too large ({} words): {}", words.size(), e.getMessage());
+            return List.of();
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            logger.info("Resume search index disabled (app.search.enabled=false or index not writable)");
+            return;
+        }
+        maintenance.execute(this::rebuildIfNeeded);
+    }
+
+    @EventListener
+    public void onResumeUpdated(ResumeUpdatedEvent event) {
+        if (enabled) maintenance.execute(() -> refresh(event.getEmployeeId()));
+    }
+
+    @EventListener
+    public void onEmployeeDeleted(EmployeeDeletedEvent event) {
+        if (enabled) maintenance.execute(() -> remove(event.getEmployeeId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.commit-interval-ms:10000}")
+    public void commitPending() {
+        if (!enabled || writer == null || !writer.hasUncommittedChanges()) return;
+        maintenance.execute(() -> {
+            try {
+                writer.commit();
+            } catch (IOException e) {
+                logger.warn("Resume search index commit failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void rebuildIfNeeded() {
+        long started = System.currentTimeMillis();
+        try {
+            if (rebuildOnStart || writer.getDocStats().numDocs == 0) {
+                writer.deleteAll();
+                int count = 0;
+                for (Employee emp : employeeRepository.findByResumeParsedTextIsNotNull()) {
+                    writer.addDocument(toDocument(emp));
+                    count++;
+                }
+                writer.commit();
+                logger.info("Resume search index built: {} resumes in {} ms", count, System.currentTimeMillis() - started);
+            } else {
+                logger.info("Resume search index reused: {} resumes", writer.getDocStats().numDocs);
+            }
+            searcherManager.maybeRefresh();
+            ready = true;
+        } catch (Exception e) {
+            logger.error("Resume search index build failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void refresh(long employeeId) {
+        try {
+            Employee emp = employeeRepository.findById(employeeId).orElse(null);
+            if (emp == null || emp.getResumeParsedText() == null || emp.getResumeParsedText().isBlank()) {
+                writer.deleteDocuments(new Term(ID, String.valueOf(employeeId)));
+            } else {
+                writer.updateDocument(new Term(ID, String.valueOf(employeeId)), toDocument(emp));
+            }
+            searcherManager.maybeRefresh();
+        } catch (Exception e) {
+            logger.warn("Resume search index refresh failed for employeeId={}: {}", employeeId, e.getMessage());
+        }
+    }
+
+    private void remove(long employeeId) {
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(employeeId)));
+            searcherManager.maybeRefresh();
+        } catch (Exception e) {
+            logger.warn("Resume search index delete failed for employeeId={}: {}", employeeId, e.getMessage());
+        }
+    }
+
+    private Query parse(String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer, BOOSTS);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            try {
+                return parser.parse(QueryParser.escape(queryText));
+            } catch (ParseException again) {
+                throw new IllegalArgumentException("Unsupported search query");
+            }
+        }
+    }
+
+    private Document toDocument(Employee emp) {
+        StringBuilder skills = new StringBuilder(emp.getResumeSkills() == null ? "" : emp.getResumeSkills());
+        StringBuilder experience = new StringBuilder();
+        StringBuilder education = new StringBuilder();
+        StringBuilder text = new StringBuilder();
+
+        String json = emp.getResumeParsedText();
+        JsonNode root = null;
+        try {
+            root = MAPPER.readTree(json);
+        } catch (Exception ignored) {
+            // not JSON: index it as plain text below
+        }
+        if (root != null && root.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String key = field.getKey().toLowerCase(Locale.ROOT);
+                if (SKIPPED_KEYS.contains(key)) continue;
+                if (key.contains("skill")) {
+                    appendText(field.getValue(), skills);
+                } else if (key.contains("experience") || key.contains("employment") || key.startsWith("work")) {
+                    appendText(field.getValue(), experience);
+                } else if (key.contains("education")) {
+                    appendText(field.getValue(), education);
+                } else {
+                    appendText(field.getValue(), text);
+                }
+            }
+        } else if (json != null) {
+            text.append(json);
+        }
+
+        String name = ((emp.getFname() == null ? "" : emp.getFname()) + " "
+                + (emp.getLname() == null ? "" : emp.getLname())).trim();
+
+        Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(emp.getId()), Field.Store.YES));
+        doc.add(new TextField(NAME, name, Field.Store.YES));
+        doc.add(new TextField(SKILLS, skills.toString(), Field.Store.YES));
+        doc.add(new TextField(EXPERIENCE, experience.toString(), Field.Store.YES));
+        doc.add(new TextField(EDUCATION, education.toString(), Field.Store.YES));
+        doc.add(new TextField(TEXT, text.toString(), Field.Store.YES));
+        if (emp.getDepartment() != null) doc.add(new StoredField(DEPARTMENT, emp.getDepartment()));
+        if (emp.getDesignation() != null) doc.add(new StoredField(DESIGNATION, emp.getDesignation()));
+        return doc;
+    }
+
+    // every scalar under the node, one per line so passages do not run across entries
+    private static void appendText(JsonNode node, StringBuilder out) {
+        if (node == null || node.isNull()) return;
+        if (node.isValueNode()) {
+            String value = node.asText();
+            if (!value.isBlank()) {
+                if (out.length() > 0) out.append('\n');
+                out.append(value);
+            }
+            return;
+        }
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!SKIPPED_KEYS.contains(field.getKey().toLowerCase(Locale.ROOT))) appendText(field.getValue(), out);
+            }
+            return;
+        }
+        for (JsonNode child : node) appendText(child, out);
+    }
+}
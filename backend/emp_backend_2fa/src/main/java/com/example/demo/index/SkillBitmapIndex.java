@@ -0,0 +1,229 @@
+package com.example.demo.index;
+
+import com.example.demo.event.EmployeeDeletedEvent;
+import com.example.demo.event.ResumeUpdatedEvent;
+import com.example.demo.model.Employee;
+import com.example.demo.model.EmployeeSummary;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.EmployeeSummaryQuery;
+import com.example.demo.skills.SkillTaxonomy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index skill -> compressed bitmap (Roaring) of employee ids, for boolean skill filters such as
+ * "Java AND Kafka AND NOT PHP" without reading every row or a {@code LIKE '%java%'} MySQL cannot index.
+ *
+ * Skills are keyed by taxonomy id when known (so "springboot" and "Spring Boot" are one posting list),
+ * otherwise by the lower-cased name. Built from Employee.resumeSkills when the application is ready and then
+ * kept current from {@link ResumeUpdatedEvent} / {@link EmployeeDeletedEvent} on one background thread, like
+ * {@link CandidateVectorIndex}. Queries share a read lock and only AND / OR / ANDNOT bitmaps.
+ */
+@Component
+public class SkillBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillBitmapIndex.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final SkillTaxonomy skillTaxonomy;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Roaring64NavigableMap> postings = new HashMap<>();
+    private final Map<Long, Set<String>> keysByEmployee = new HashMap<>();
+    // everyone with at least one skill on file: the universe a NOT-only query is answered over
+    private final Roaring64NavigableMap withSkills = new Roaring64NavigableMap();
+
+    private final ExecutorService maintenance = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "skill-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${app.skills.index.enabled:true}")
+    private boolean enabled;
+
+    private volatile boolean ready;
+
+    public SkillBitmapIndex(EmployeeRepository employeeRepository, SkillTaxonomy skillTaxonomy,
+                            MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.skillTaxonomy = skillTaxonomy;
+        meterRegistry.gauge("skill.index.skills", postings, Map::size);
+        meterRegistry.gauge("skill.index.employees", keysByEmployee, Map::size);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Employees having every skill in {@code all}, at least one of {@code any} (ignored when empty) and none of
+     * {@code none}. Blank entries are ignored; a query with no terms matches nothing. Returns a new bitmap.
+     */
+    public Roaring64NavigableMap match(Collection<String> all, Collection<String> any, Collection<String> none) {
+        Set<String> allKeys = keys(all);
+        Set<String> anyKeys = keys(any);
+        Set<String> noneKeys = keys(none);
+        Roaring64NavigableMap result = new Roaring64NavigableMap();
+        if (allKeys.isEmpty() && anyKeys.isEmpty() && noneKeys.isEmpty()) return result;
+
+        lock.readLock().lock();
+        try {
+            if (!allKeys.isEmpty()) {
+                boolean first = true;
+                for (String key : allKeys) {
+                    Roaring64NavigableMap posting = postings.get(key);
+                    if (posting == null) return new Roaring64NavigableMap();
+                    if (first) {
+                        result.or(posting);
+                        first = false;
+                    } else {
+                        result.and(posting);
+                    }
+                    if (result.isEmpty()) return result;
+                }
+            } else if (anyKeys.isEmpty()) {
+                result.or(withSkills);
+            }
+
+            if (!anyKeys.isEmpty()) {
+                Roaring64NavigableMap union = new Roaring64NavigableMap();
+                for (String key : anyKeys) {
+                    Roaring64NavigableMap posting = postings.get(key);
+                    if (posting != null) union.or(posting);
+                }
+                if (allKeys.isEmpty()) {
+                    result = union;
+                } else {
+                    result.and(union);
+                }
+            }
+
+            for (String key : noneKeys) {
+                Roaring64NavigableMap posting = postings.get(key);
+                if (posting != null) result.andNot(posting);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            logger.info("Skill bitmap index disabled (app.skills.index.enabled=false)");
+            return;
+        }
+        maintenance.execute(this::rebuild);
+    }
+
+    @EventListener
+    public void onResumeUpdated(ResumeUpdatedEvent event) {
+        if (enabled) maintenance.execute(() -> refresh(event.getEmployeeId()));
+    }
+
+    @EventListener
+    public void onEmployeeDeleted(EmployeeDeletedEvent event) {
+        if (enabled) maintenance.execute(() -> put(event.getEmployeeId(), null));
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            EmployeeSummaryQuery query = new EmployeeSummaryQuery();
+            query.setLimit(0);
+            for (EmployeeSummary emp : employeeRepository.findSummaries(query)) {
+                put(emp.getId(), emp.getResumeSkills());
+            }
+            lock.writeLock().lock();
+            try {
+                postings.values().forEach(Roaring64NavigableMap::runOptimize);
+                withSkills.runOptimize();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            logger.info("Skill bitmap index built: {} employees, {} skills in {} ms",
+                    keysByEmployee.size(), postings.size(), System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Skill bitmap index build failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void refresh(long employeeId) {
+        try {
+            put(employeeId, employeeRepository.findById(employeeId).map(Employee::getResumeSkills).orElse(null));
+        } catch (Exception e) {
+            logger.warn("Skill bitmap index refresh failed for employeeId={}: {}", employeeId, e.getMessage());
+        }
+    }
+
+    // replaces the employee's postings with the given comma separated skills (null / blank = remove)
+    private void put(long employeeId, String resumeSkills) {
+        Set<String> keys = (resumeSkills == null || resumeSkills.isBlank())
+                ? Set.of()
+                : keys(Arrays.asList(resumeSkills.split(",")));
+
+        lock.writeLock().lock();
+        try {
+            Set<String> previous = keysByEmployee.remove(employeeId);
+            if (previous != null) {
+                for (String key : previous) {
+                    Roaring64NavigableMap posting = postings.get(key);
+                    if (posting == null) continue;
+                    posting.removeLong(employeeId);
+                    if (posting.isEmpty()) postings.remove(key);
+                }
+            }
+            if (keys.isEmpty()) {
+                withSkills.removeLong(employeeId);
+                return;
+            }
+            for (String key : keys) {
+                postings.computeIfAbsent(key, k -> new Roaring64NavigableMap()).addLong(employeeId);
+            }
+            keysByEmployee.put(employeeId, keys);
+            withSkills.addLong(employeeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Set<String> keys(Collection<String> skills) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (skills == null) return keys;
+        for (String skill : skills) {
+            if (skill == null || skill.isBlank()) continue;
+            int id = skillTaxonomy.idOf(skill);
+            keys.add(id >= 0 ? skillTaxonomy.canonicalId(id) : skill.trim().toLowerCase(Locale.ROOT));
+        }
+        return keys;
+    }
+}
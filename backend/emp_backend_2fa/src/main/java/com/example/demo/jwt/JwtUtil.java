@@ -4,8 +4,14 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.nio.charset.StandardCharsets;
 
+import com.example.demo.cache.ContentHash;
+
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
 //import javax.annotation.PostConstruct;
@@ -23,8 +29,28 @@ public class JwtUtil {
     @Value("${jwt.expiration:3600000}")
     private long expiration;
 
+    // upper bound on cached verified tokens; roughly one per active session per node
+    @Value("${jwt.claims-cache.max-entries:10000}")
+    private int claimsCacheMaxEntries;
+
     private Key key;
 
+    // built once: the parser is immutable and thread-safe
+    private JwtParser parser;
+
+    // sha256(token) -> verified claims, dropped at the token's own expiry
+    private final ConcurrentHashMap<String, CachedClaims> claimsCache = new ConcurrentHashMap<>();
+
+    private static final class CachedClaims {
+        final Claims claims;
+        final long expiresAtMillis;
+
+        CachedClaims(Claims claims, long expiresAtMillis) {
+            this.claims = claims;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
     @jakarta.annotation.PostConstruct
     public void init() {
         if (secret == null || secret.length() < 32) {
@@ -32,11 +58,13 @@ public class JwtUtil {
             throw new IllegalStateException("jwt.secret is not set or too short. Provide a strong secret (32+ chars) via config.");
         }
         key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     // Generate token with optional role claim
     public String generateToken(String username, String role) {
         JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // jti: lets a single token be revoked (logout)
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration));
@@ -75,19 +103,63 @@ public class JwtUtil {
         return exp == null || exp.before(new Date());
     }
 
-    // Parse & return Claims (will throw on invalid token)
+    /**
+     * Verified, unexpired claims for the token, or null if it is malformed, tampered with or expired.
+     * The signature is checked once per token; later calls are a digest + map lookup until the token expires.
+     */
+    public Claims resolveClaims(String token) {
+        try {
+            Claims claims = extractClaims(token);
+            // tokens without an expiry were never accepted (see isTokenExpired)
+            return claims.getExpiration() != null ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Parse & return Claims (will throw on invalid token); served from the verified-claims cache when possible
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT is empty");
+        }
+        long now = System.currentTimeMillis();
+        String digest = ContentHash.sha256Hex(token);
+        CachedClaims cached = claimsCache.get(digest);
+        if (cached != null) {
+            if (cached.expiresAtMillis > now) {
+                return cached.claims;
+            }
+            claimsCache.remove(digest, cached);
+            throw new ExpiredJwtException(null, cached.claims, "JWT expired");
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date exp = claims.getExpiration();
+        if (exp != null) {
+            if (claimsCache.size() >= claimsCacheMaxEntries) {
+                evictExpired(now);
+            }
+            if (claimsCache.size() < claimsCacheMaxEntries) {
+                claimsCache.put(digest, new CachedClaims(claims, exp.getTime()));
+            }
+        }
+        return claims;
+    }
+
+    // full cache: drop expired entries; if every entry is still live, new tokens are simply not cached
+    private void evictExpired(long now) {
+        for (Iterator<Map.Entry<String, CachedClaims>> it = claimsCache.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue().expiresAtMillis <= now) {
+                it.remove();
+            }
+        }
     }
 
     // create pre-auth token (expiry e.g., 5 minutes)
     public String generatePreAuthToken(String username) {
         long preAuthExpiry = 5 * 60 * 1000; // 5 minutes
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
                 .claim("preAuth", true)
                 .setIssuedAt(new Date())
@@ -0,0 +1,54 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Stored embedding vector. Keyed by SHA-256 of (embeddings model, input text); the vector is packed
+ * as little-endian float32 (4 bytes per dimension, ~12KB for text-embedding-3-large).
+ */
+@Entity
+@Table(name = "embedding_store")
+public class EmbeddingEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "model", nullable = false)
+    private String model;
+
+    @Column(name = "dims", nullable = false)
+    private int dims;
+
+    @Lob
+    @Column(name = "vector", columnDefinition = "MEDIUMBLOB", nullable = false)
+    private byte[] vector;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public EmbeddingEntry() {}
+
+    public EmbeddingEntry(String cacheKey, String model, int dims, byte[] vector) {
+        this.cacheKey = cacheKey;
+        this.model = model;
+        this.dims = dims;
+        this.vector = vector;
+    }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public int getDims() { return dims; }
+    public void setDims(int dims) { this.dims = dims; }
+
+    public byte[] getVector() { return vector; }
+    public void setVector(byte[] vector) { this.vector = vector; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
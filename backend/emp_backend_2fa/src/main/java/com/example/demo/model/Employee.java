@@ -61,6 +61,13 @@ public class Employee extends Auditable {
 	
 	@Column(name="resume")
     private String resumePath;
+
+	// content types detected once at upload, so file downloads never probe the disk
+	@Column(name="profile_photo_content_type", length = 100)
+	private String profilePhotoContentType;
+
+	@Column(name="resume_content_type", length = 100)
+	private String resumeContentType;
 	
 	
 	
@@ -85,6 +92,10 @@ public class Employee extends Auditable {
 	
 	    @Column(name="resume_status")
 	    private String resumeStatus;
+
+	    // id of the latest resume ingestion (async upload pipeline)
+	    @Column(name="resume_ingestion_id", length = 36)
+	    private String resumeIngestionId;
 	
 	public long getId() {
 		return id;
@@ -151,6 +162,22 @@ public class Employee extends Auditable {
 		this.resumePath = resumePath;
 	}
 
+	public String getProfilePhotoContentType() {
+		return profilePhotoContentType;
+	}
+
+	public void setProfilePhotoContentType(String profilePhotoContentType) {
+		this.profilePhotoContentType = profilePhotoContentType;
+	}
+
+	public String getResumeContentType() {
+		return resumeContentType;
+	}
+
+	public void setResumeContentType(String resumeContentType) {
+		this.resumeContentType = resumeContentType;
+	}
+
 	public String getResumeParsedText() {
 		return resumeParsedText;
 	}
@@ -191,6 +218,14 @@ public class Employee extends Auditable {
 		this.resumeStatus = resumeStatus;
 	}
 
+	public String getResumeIngestionId() {
+		return resumeIngestionId;
+	}
+
+	public void setResumeIngestionId(String resumeIngestionId) {
+		this.resumeIngestionId = resumeIngestionId;
+	}
+
 	public Long getJobId() {
 		// TODO Auto-generated method stub
 		return null;
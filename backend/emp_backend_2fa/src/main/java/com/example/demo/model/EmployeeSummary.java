@@ -0,0 +1,101 @@
+package com.example.demo.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Slim read model for employee listings: every column the grid shows, without the parsed resume JSON.
+ * Built directly by the query (constructor projection), so the TEXT column is never read for lists.
+ */
+public class EmployeeSummary {
+
+	private final long id;
+	private final String fname;
+	private final String lname;
+	private final String email;
+	private final long salary;
+	private final String department;
+	private final String designation;
+	private final LocalDate joiningDate;
+	private final String profilePhotoPath;
+	private final String resumePath;
+	private final String resumeSkills;
+	private final Double resumeScore;
+	private final String resumeStatus;
+	private final LocalDateTime resumeParsedAt;
+
+	public EmployeeSummary(long id, String fname, String lname, String email, long salary, String department,
+			String designation, LocalDate joiningDate, String profilePhotoPath, String resumePath,
+			String resumeSkills, Double resumeScore, String resumeStatus, LocalDateTime resumeParsedAt) {
+		this.id = id;
+		this.fname = fname;
+		this.lname = lname;
+		this.email = email;
+		this.salary = salary;
+		this.department = department;
+		this.designation = designation;
+		this.joiningDate = joiningDate;
+		this.profilePhotoPath = profilePhotoPath;
+		this.resumePath = resumePath;
+		this.resumeSkills = resumeSkills;
+		this.resumeScore = resumeScore;
+		this.resumeStatus = resumeStatus;
+		this.resumeParsedAt = resumeParsedAt;
+	}
+
+	public long getId() {
+		return id;
+	}
+
+	public String getFname() {
+		return fname;
+	}
+
+	public String getLname() {
+		return lname;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public long getSalary() {
+		return salary;
+	}
+
+	public String getDepartment() {
+		return department;
+	}
+
+	public String getDesignation() {
+		return designation;
+	}
+
+	public LocalDate getJoiningDate() {
+		return joiningDate;
+	}
+
+	public String getProfilePhotoPath() {
+		return profilePhotoPath;
+	}
+
+	public String getResumePath() {
+		return resumePath;
+	}
+
+	public String getResumeSkills() {
+		return resumeSkills;
+	}
+
+	public Double getResumeScore() {
+		return resumeScore;
+	}
+
+	public String getResumeStatus() {
+		return resumeStatus;
+	}
+
+	public LocalDateTime getResumeParsedAt() {
+		return resumeParsedAt;
+	}
+}
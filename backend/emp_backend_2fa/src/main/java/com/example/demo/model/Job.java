@@ -1,10 +1,12 @@
 package com.example.demo.model;
 
+import com.example.demo.skills.JobSkillsListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "jobs")
+@EntityListeners(JobSkillsListener.class)
 public class Job {
 
     @Id
@@ -17,7 +19,7 @@ public class Job {
     private String description; // job requirements / description
 
     @Column(name = "required_skills", columnDefinition = "TEXT")
-    private String requiredSkills; // optional: comma separated skills
+    private String requiredSkills; // optional: comma separated skills, canonical names (JobSkillsListener)
 
     @Column(name = "created_at")
     private LocalDateTime createdAt = LocalDateTime.now();
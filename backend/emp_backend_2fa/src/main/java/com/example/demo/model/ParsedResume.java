@@ -0,0 +1,178 @@
+package com.example.demo.model;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.example.demo.skills.SkillSet;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Typed, immutable view of the parsed resume JSON (Employee.resumeParsedText / the LLM output).
+ * Built in a single pass over the JSON tree; scoring reads these fields instead of re-parsing the string
+ * for skills, experience and education separately. Instances are safe to share between threads.
+ */
+public final class ParsedResume {
+
+	public static final ParsedResume EMPTY = new ParsedResume(false, "", List.of(), List.of(), 0, "", null, SkillSet.EMPTY);
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final boolean valid;
+	private final String skillsText;
+	private final List<String> skills;
+	private final Set<String> normalizedSkills;
+	private final List<Interval> experience;
+	private final int educationCount;
+	private final String fallbackText;
+	private final Double reportedScore;
+	private final SkillSet skillSet;
+
+	/**
+	 * One experience entry reduced to years; endYear null = ongoing (counted up to the current year).
+	 */
+	public static final class Interval {
+		private final int startYear;
+		private final Integer endYear;
+
+		public Interval(int startYear, Integer endYear) {
+			this.startYear = startYear;
+			this.endYear = endYear;
+		}
+
+		public int getStartYear() { return startYear; }
+		public Integer getEndYear() { return endYear; }
+
+		public int years(int currentYear) {
+			return Math.max(0, (endYear != null ? endYear : currentYear) - startYear);
+		}
+	}
+
+	private ParsedResume(boolean valid, String skillsText, List<String> skills, List<Interval> experience,
+			int educationCount, String fallbackText, Double reportedScore, SkillSet skillSet) {
+		this.valid = valid;
+		this.skillsText = skillsText;
+		this.skills = skills;
+		Set<String> normalized = new LinkedHashSet<>();
+		for (String s : skills) normalized.add(s.toLowerCase(Locale.ROOT));
+		this.normalizedSkills = Collections.unmodifiableSet(normalized);
+		this.experience = experience;
+		this.educationCount = educationCount;
+		this.fallbackText = fallbackText;
+		this.reportedScore = reportedScore;
+		this.skillSet = skillSet;
+	}
+
+	/**
+	 * Parse once. Blank or malformed JSON yields {@link #EMPTY} (valid = false), never an exception.
+	 */
+	public static ParsedResume parse(String json) {
+		if (json == null || json.isBlank()) return EMPTY;
+		JsonNode root;
+		try {
+			root = MAPPER.readTree(json);
+		} catch (Exception e) {
+			return EMPTY;
+		}
+		if (root == null || !root.isObject()) return EMPTY;
+
+		// skills: array ("a; b; c" is the text candidate embeddings are computed over) or a comma string
+		String skillsText = "";
+		List<String> skills = new ArrayList<>();
+		JsonNode skillsNode = root.get("skills");
+		if (skillsNode != null && skillsNode.isArray()) {
+			StringBuilder sb = new StringBuilder();
+			for (JsonNode s : skillsNode) {
+				if (sb.length() > 0) sb.append("; ");
+				sb.append(s.asText());
+				String skill = s.asText().trim();
+				if (!skill.isEmpty()) skills.add(skill);
+			}
+			skillsText = sb.toString();
+		} else if (skillsNode != null && skillsNode.isTextual()) {
+			for (String part : skillsNode.asText().split("[,;]")) {
+				String skill = part.trim();
+				if (!skill.isEmpty()) skills.add(skill);
+			}
+		}
+
+		// experience: start/end strings reduced to years; entries with an unreadable year are skipped
+		List<Interval> experience = new ArrayList<>();
+		StringBuilder experienceText = new StringBuilder();
+		JsonNode exp = root.get("experience");
+		if (exp != null && exp.isArray()) {
+			for (JsonNode e : exp) {
+				if (e.has("title")) experienceText.append(" ").append(e.get("title").asText());
+				if (e.has("description")) experienceText.append(" ").append(e.get("description").asText());
+				String start = e.has("start") ? e.get("start").asText() : null;
+				String end = e.has("end") ? e.get("end").asText() : null;
+				try {
+					if (start != null && start.length() >= 4) {
+						int sy = Integer.parseInt(start.substring(0, 4));
+						Integer ey = (end != null && end.length() >= 4) ? Integer.valueOf(end.substring(0, 4)) : null;
+						experience.add(new Interval(sy, ey));
+					}
+				} catch (NumberFormatException ignored) {
+				}
+			}
+		}
+
+		JsonNode edu = root.get("education");
+		int educationCount = (edu != null && edu.isArray()) ? edu.size() : 0;
+
+		// keyword fallback when there are no skills: a free 'text' field, else experience titles/descriptions
+		String fallbackText = skillsText;
+		if (fallbackText.isBlank()) {
+			if (root.has("text")) fallbackText = root.get("text").asText("");
+			else if (experienceText.length() > 0) fallbackText = experienceText.toString();
+		}
+
+		Double reportedScore = null;
+		JsonNode score = root.get("score");
+		if (score != null && score.isNumber()) {
+			reportedScore = score.doubleValue();
+		} else if (score != null && score.isTextual()) {
+			try {
+				reportedScore = Double.parseDouble(score.asText().trim());
+			} catch (NumberFormatException ignored) {
+			}
+		}
+
+		return new ParsedResume(true, skillsText, Collections.unmodifiableList(skills),
+				Collections.unmodifiableList(experience), educationCount, fallbackText, reportedScore, SkillSet.EMPTY);
+	}
+
+	/**
+	 * Copy with the skills resolved to taxonomy ids (SkillTaxonomy lives outside the model, see ParsedResumeCache).
+	 */
+	public ParsedResume withSkillSet(SkillSet skillSet) {
+		return new ParsedResume(valid, skillsText, skills, experience, educationCount, fallbackText, reportedScore,
+				skillSet == null ? SkillSet.EMPTY : skillSet);
+	}
+
+	public boolean isValid() { return valid; }
+	public String getSkillsText() { return skillsText; }
+	public List<String> getSkills() { return skills; }
+	public Set<String> getNormalizedSkills() { return normalizedSkills; }
+	public List<Interval> getExperience() { return experience; }
+	public int getEducationCount() { return educationCount; }
+	public String getFallbackText() { return fallbackText; }
+	public Double getReportedScore() { return reportedScore; }
+	public SkillSet getSkillSet() { return skillSet; }
+
+	public boolean hasEducation() {
+		return educationCount > 0;
+	}
+
+	public int experienceYears() {
+		int currentYear = Year.now().getValue();
+		int years = 0;
+		for (Interval i : experience) years += i.years(currentYear);
+		return years;
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the LLM resume-parse cache. Keyed by SHA-256 of (parse model, prompt version, extracted text).
+ */
+@Entity
+@Table(name = "resume_parse_cache")
+public class ResumeParseCacheEntry {
+
+    @Id
+    @Column(name = "cache_key", length = 64)
+    private String cacheKey;
+
+    @Column(name = "parse_model", nullable = false)
+    private String parseModel;
+
+    @Column(name = "prompt_version", nullable = false, length = 32)
+    private String promptVersion;
+
+    @Column(name = "parsed_json", columnDefinition = "MEDIUMTEXT", nullable = false)
+    private String parsedJson;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public ResumeParseCacheEntry() {}
+
+    public ResumeParseCacheEntry(String cacheKey, String parseModel, String promptVersion, String parsedJson) {
+        this.cacheKey = cacheKey;
+        this.parseModel = parseModel;
+        this.promptVersion = promptVersion;
+        this.parsedJson = parsedJson;
+    }
+
+    public String getCacheKey() { return cacheKey; }
+    public void setCacheKey(String cacheKey) { this.cacheKey = cacheKey; }
+
+    public String getParseModel() { return parseModel; }
+    public void setParseModel(String parseModel) { this.parseModel = parseModel; }
+
+    public String getPromptVersion() { return promptVersion; }
+    public void setPromptVersion(String promptVersion) { this.promptVersion = promptVersion; }
+
+    public String getParsedJson() { return parsedJson; }
+    public void setParsedJson(String parsedJson) { this.parsedJson = parsedJson; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.EmbeddingEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmbeddingEntryRepository extends JpaRepository<EmbeddingEntry, String> {
+    // findById / findAllById(cacheKeys) / save are all the store needs
+}
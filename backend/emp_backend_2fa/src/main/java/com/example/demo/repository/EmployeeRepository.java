@@ -1,15 +1,31 @@
 package com.example.demo.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.model.Employee;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee,Long>{
+public interface EmployeeRepository extends JpaRepository<Employee,Long>, EmployeeRepositoryCustom {
 
 	List<Employee> findByResumeStatus(String string);
 
+	Optional<Employee> findByResumeIngestionId(String resumeIngestionId);
+
+	// candidates for bulk ranking: everyone whose resume has been parsed
+	List<Employee> findByResumeParsedTextIsNotNull();
+
+	// Stage update for the async resume pipeline; only touches the row while it still belongs to that ingestion
+	@Modifying
+	@Transactional
+	@Query("update Employee e set e.resumeStatus = :status where e.id = :id and e.resumeIngestionId = :ingestionId")
+	int updateResumeStatus(@Param("id") long id, @Param("ingestionId") String ingestionId, @Param("status") String status);
+
 }
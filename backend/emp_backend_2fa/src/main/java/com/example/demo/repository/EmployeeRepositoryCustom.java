@@ -0,0 +1,14 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+import com.example.demo.model.EmployeeSummary;
+
+public interface EmployeeRepositoryCustom {
+
+	// Filtered, sorted page of the slim projection (no resume_parsed_text); keyset or offset paging
+	List<EmployeeSummary> findSummaries(EmployeeSummaryQuery query);
+
+	// Row count for the same filters (offset mode only; keyset pages skip it)
+	long countSummaries(EmployeeSummaryQuery query);
+}
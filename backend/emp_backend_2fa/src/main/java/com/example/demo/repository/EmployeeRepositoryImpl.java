@@ -0,0 +1,123 @@
+package com.example.demo.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.example.demo.model.Employee;
+import com.example.demo.model.EmployeeSummary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public EmployeeRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public List<EmployeeSummary> findSummaries(EmployeeSummaryQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeSummary> cq = cb.createQuery(EmployeeSummary.class);
+        Root<Employee> e = cq.from(Employee.class);
+
+        // constructor projection: resume_parsed_text is never selected
+        cq.select(cb.construct(EmployeeSummary.class,
+                e.get("id"), e.get("fname"), e.get("lname"), e.get("email"), e.get("salary"),
+                e.get("department"), e.get("designation"), e.get("joiningDate"), e.get("profilePhotoPath"),
+                e.get("resumePath"), e.get("resumeSkills"), e.get("resumeScore"), e.get("resumeStatus"),
+                e.get("resumeParsedAt")));
+
+        List<Predicate> where = filters(cb, e, query);
+        EmployeeSortField sort = query.getSort() != null ? query.getSort() : EmployeeSortField.ID;
+        boolean desc = query.isDescending();
+        Path<Long> id = e.get("id");
+        Expression key = sortKey(cb, e, sort);
+
+        if (query.isKeyset()) {
+            Long afterId = query.getAfterId();
+            Predicate idAfter = desc ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId);
+            if (sort == EmployeeSortField.ID) {
+                where.add(idAfter);
+            } else {
+                Comparable after = (Comparable) query.getAfterValue();
+                Predicate keyAfter = desc ? cb.lessThan(key, after) : cb.greaterThan(key, after);
+                where.add(cb.or(keyAfter, cb.and(cb.equal(key, after), idAfter)));
+            }
+        }
+        cq.where(where.toArray(new Predicate[0]));
+
+        if (sort == EmployeeSortField.ID) {
+            cq.orderBy(desc ? cb.desc(id) : cb.asc(id));
+        } else {
+            cq.orderBy(desc ? cb.desc(key) : cb.asc(key), desc ? cb.desc(id) : cb.asc(id));
+        }
+
+        TypedQuery<EmployeeSummary> typed = entityManager.createQuery(cq);
+        if (query.getLimit() > 0) {
+            typed.setMaxResults(query.getLimit());
+        }
+        if (!query.isKeyset() && query.getOffset() > 0) {
+            typed.setFirstResult(query.getOffset());
+        }
+        return typed.getResultList();
+    }
+
+    @Override
+    public long countSummaries(EmployeeSummaryQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<Employee> e = cq.from(Employee.class);
+        cq.select(cb.count(e)).where(filters(cb, e, query).toArray(new Predicate[0]));
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+
+    private List<Predicate> filters(CriteriaBuilder cb, Root<Employee> e, EmployeeSummaryQuery query) {
+        List<Predicate> where = new ArrayList<>();
+        if (hasText(query.getQ())) {
+            String pattern = "%" + escapeLike(query.getQ().trim().toLowerCase(Locale.ROOT)) + "%";
+            where.add(cb.or(
+                    cb.like(cb.lower(e.get("fname")), pattern, '\\'),
+                    cb.like(cb.lower(e.get("lname")), pattern, '\\'),
+                    cb.like(cb.lower(e.get("email")), pattern, '\\')));
+        }
+        if (hasText(query.getDepartment())) {
+            where.add(cb.equal(e.get("department"), query.getDepartment().trim()));
+        }
+        if (hasText(query.getDesignation())) {
+            where.add(cb.equal(e.get("designation"), query.getDesignation().trim()));
+        }
+        if (hasText(query.getResumeStatus())) {
+            where.add(cb.equal(e.get("resumeStatus"), query.getResumeStatus().trim().toUpperCase(Locale.ROOT)));
+        }
+        if (query.getIds() != null) {
+            // pre-filtered ids (e.g. the skill bitmap index); an empty set must match nothing, not everything
+            where.add(query.getIds().isEmpty() ? cb.disjunction() : e.get("id").in(query.getIds()));
+        }
+        return where;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Expression sortKey(CriteriaBuilder cb, Root<Employee> e, EmployeeSortField sort) {
+        Expression path = e.get(sort.getAttribute());
+        return sort.getNullSentinel() == null ? path : cb.coalesce(path, sort.getNullSentinel());
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
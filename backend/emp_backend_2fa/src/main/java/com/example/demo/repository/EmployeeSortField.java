@@ -0,0 +1,78 @@
+package com.example.demo.repository;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Function;
+
+import com.example.demo.model.EmployeeSummary;
+
+/**
+ * Sort keys the employee listing accepts. Nullable columns are ordered through a sentinel (coalesce) so the
+ * keyset predicate "after (value, id)" stays a total order; id is always the tie-breaker.
+ */
+public enum EmployeeSortField {
+
+	ID("id", null, s -> s.getId()),
+	FNAME("fname", "", EmployeeSummary::getFname),
+	LNAME("lname", "", EmployeeSummary::getLname),
+	EMAIL("email", "", EmployeeSummary::getEmail),
+	DEPARTMENT("department", "", EmployeeSummary::getDepartment),
+	DESIGNATION("designation", "", EmployeeSummary::getDesignation),
+	SALARY("salary", null, s -> s.getSalary()),
+	JOINING_DATE("joiningDate", LocalDate.of(1, 1, 1), EmployeeSummary::getJoiningDate),
+	RESUME_SCORE("resumeScore", -1.0, EmployeeSummary::getResumeScore);
+
+	private final String attribute;
+	private final Object nullSentinel;
+	private final Function<EmployeeSummary, Object> extractor;
+
+	EmployeeSortField(String attribute, Object nullSentinel, Function<EmployeeSummary, Object> extractor) {
+		this.attribute = attribute;
+		this.nullSentinel = nullSentinel;
+		this.extractor = extractor;
+	}
+
+	public String getAttribute() {
+		return attribute;
+	}
+
+	// null for NOT NULL columns
+	public Object getNullSentinel() {
+		return nullSentinel;
+	}
+
+	/**
+	 * Sort value of the row as the query sees it (sentinel substituted for null).
+	 */
+	public Object valueOf(EmployeeSummary summary) {
+		Object v = extractor.apply(summary);
+		return v != null ? v : nullSentinel;
+	}
+
+	/**
+	 * Inverse of {@code String.valueOf(valueOf(..))}, used when decoding a cursor.
+	 */
+	public Object parse(String raw) {
+		switch (this) {
+		case ID:
+		case SALARY:
+			return Long.valueOf(raw);
+		case JOINING_DATE:
+			return LocalDate.parse(raw);
+		case RESUME_SCORE:
+			return Double.valueOf(raw);
+		default:
+			return raw;
+		}
+	}
+
+	public static EmployeeSortField fromParam(String param) {
+		if (param == null || param.isBlank()) return ID;
+		for (EmployeeSortField f : values()) {
+			if (f.attribute.equalsIgnoreCase(param) || f.name().equalsIgnoreCase(param.toUpperCase(Locale.ROOT))) {
+				return f;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported sort field: " + param);
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+
+/**
+ * Filters, sort and page window for {@link EmployeeRepositoryCustom#findSummaries}.
+ *
+ * Either keyset (afterValue/afterId set from a cursor) or offset paging; keyset wins when both are set.
+ */
+public class EmployeeSummaryQuery {
+
+	private String q;
+	private String department;
+	private String designation;
+	private String resumeStatus;
+	private Collection<Long> ids; // null: no id restriction; empty: matches nothing
+
+	private EmployeeSortField sort = EmployeeSortField.ID;
+	private boolean descending;
+
+	private Object afterValue;
+	private Long afterId;
+	private int offset;
+	private int limit = 50; // <= 0: unbounded
+
+	public String getQ() { return q; }
+	public void setQ(String q) { this.q = q; }
+
+	public String getDepartment() { return department; }
+	public void setDepartment(String department) { this.department = department; }
+
+	public String getDesignation() { return designation; }
+	public void setDesignation(String designation) { this.designation = designation; }
+
+	public String getResumeStatus() { return resumeStatus; }
+	public void setResumeStatus(String resumeStatus) { this.resumeStatus = resumeStatus; }
+
+	public Collection<Long> getIds() { return ids; }
+	public void setIds(Collection<Long> ids) { this.ids = ids; }
+
+	public EmployeeSortField getSort() { return sort; }
+	public void setSort(EmployeeSortField sort) { this.sort = sort; }
+
+	public boolean isDescending() { return descending; }
+	public void setDescending(boolean descending) { this.descending = descending; }
+
+	public Object getAfterValue() { return afterValue; }
+	public void setAfterValue(Object afterValue) { this.afterValue = afterValue; }
+
+	public Long getAfterId() { return afterId; }
+	public void setAfterId(Long afterId) { this.afterId = afterId; }
+
+	public int getOffset() { return offset; }
+	public void setOffset(int offset) { this.offset = offset; }
+
+	public int getLimit() { return limit; }
+	public void setLimit(int limit) { this.limit = limit; }
+
+	public boolean isKeyset() {
+		return afterId != null;
+	}
+}
@@ -0,0 +1,10 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ResumeParseCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ResumeParseCacheRepository extends JpaRepository<ResumeParseCacheEntry, String> {
+    // findById(cacheKey) / save are all the cache needs
+}
@@ -3,4 +3,4 @@ package com.example.demo.repository;
 import com.example.demo.model.ShortlistResult;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface ShortlistResultRepository extends JpaRepository<ShortlistResult, Long> {}
+public interface ShortlistResultRepository extends JpaRepository<ShortlistResult, Long>, ShortlistResultRepositoryCustom {}
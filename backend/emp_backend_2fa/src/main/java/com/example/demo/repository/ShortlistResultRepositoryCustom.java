@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import java.util.List;
+
+import com.example.demo.model.ShortlistResult;
+
+public interface ShortlistResultRepositoryCustom {
+
+    // Multi-row insert for bulk ranking (IDENTITY ids make Hibernate insert row by row)
+    void batchInsert(List<ShortlistResult> results);
+}
@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.model.ShortlistResult;
+
+public class ShortlistResultRepositoryImpl implements ShortlistResultRepositoryCustom {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ShortlistResultRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<ShortlistResult> results) {
+        if (results == null || results.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "insert into shortlist_results (job_id, candidate_id, score, breakdown_json, created_at) values (?, ?, ?, ?, ?)",
+                results, BATCH_SIZE, (ps, r) -> {
+                    ps.setObject(1, r.getJobId());
+                    ps.setObject(2, r.getCandidateId());
+                    ps.setObject(3, r.getScore());
+                    ps.setString(4, r.getBreakdownJson());
+                    ps.setTimestamp(5, Timestamp.valueOf(r.getCreatedAt() != null ? r.getCreatedAt() : LocalDateTime.now()));
+                });
+    }
+}
@@ -11,6 +11,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.demo.jwt.JwtUtil;
+import com.example.demo.service.TokenRevocationService;
+
+import io.jsonwebtoken.Claims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -21,9 +24,11 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService revocationService;
 
-    public JwtRequestFilter(JwtUtil jwtUtil) {
+    public JwtRequestFilter(JwtUtil jwtUtil, TokenRevocationService revocationService) {
         this.jwtUtil = jwtUtil;
+        this.revocationService = revocationService;
     }
 
     @Override
@@ -34,27 +39,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String role = null;
-        String jwt = null;
-
-        // ✅ Check for Bearer Token
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-                role = jwtUtil.extractRole(jwt);
-            } catch (Exception e) {
-                System.out.println("❌ Invalid JWT: " + e.getMessage());
-            }
-        }
-
-        // ✅ Authenticate if token is valid and user not already authenticated
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
+        // ✅ Check for Bearer Token (one cached verify per token, see JwtUtil#resolveClaims)
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = jwtUtil.resolveClaims(authHeader.substring(7));
+            if (claims == null) {
+                System.out.println("❌ Invalid JWT");
+            } else if (revocationService.isRevoked(claims)) {
+                System.out.println("❌ Revoked JWT");
+            } else if (claims.getSubject() != null) {
+                String role = claims.get("role", String.class);
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                username,
+                                claims.getSubject(),
                                 null,
                                 Collections.singletonList(new SimpleGrantedAuthority(role)) // ✅ Correct
                         );
@@ -1,5 +1,7 @@
 package com.example.demo.security;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,6 +30,9 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
 
             .authorizeHttpRequests(auth -> auth
+                    // controllers returning CompletableFuture finish on an ASYNC dispatch; the original request was already authorized
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                     // public endpoints
                     .requestMatchers(
                         "/api/v1/admin/login",
@@ -54,7 +59,7 @@ public class SecurityConfig {
                     ).permitAll()
 
                     // Endpoints that require a logged-in user
-                    .requestMatchers("/api/v1/2fa/generate", "/api/v1/2fa/confirm").authenticated()
+                    .requestMatchers("/api/v1/2fa/generate", "/api/v1/2fa/confirm", "/api/v1/admin/logout").authenticated()
 
                     // Role-based APIs
                     .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
@@ -5,20 +5,28 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.annotation.PostConstruct;
 
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
-import java.time.Duration;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class AIParsingService {
 
-    private final WebClient webClient;
+    // Bump whenever buildPrompt / the system message changes so cached parses are not reused
+    public static final String PROMPT_VERSION = "v1";
+
+    private static final Logger logger = LoggerFactory.getLogger(AIParsingService.class);
+
+    private final OpenAiClient openAiClient;
+    private final ResumeParseCache parseCache;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Value("${openai.api.key:}")
@@ -27,8 +35,9 @@ public class AIParsingService {
     @Value("${openai.model.parse:gpt-4o-mini}")
     private String parseModel;
 
-    public AIParsingService(@Qualifier("openAiWebClient") WebClient openAiWebClient) {
-        this.webClient = openAiWebClient;
+    public AIParsingService(OpenAiClient openAiClient, ResumeParseCache parseCache) {
+        this.openAiClient = openAiClient;
+        this.parseCache = parseCache;
     }
 
     // optional: confirm we have a key (masked) at startup
@@ -36,10 +45,45 @@ public class AIParsingService {
     public void init() {
         String masked = (openAiKey == null || openAiKey.isBlank()) ? "<EMPTY>" :
                 openAiKey.trim().substring(0, Math.min(8, openAiKey.length())) + "...[masked]";
-        org.slf4j.LoggerFactory.getLogger(AIParsingService.class).info("AIParsingService OpenAI key (masked) = {}", masked);
+        logger.info("AIParsingService OpenAI key (masked) = {}", masked);
     }
 
     public String parseResumeToJson(String resumeText, String filename) throws Exception {
+        try {
+            return parseResumeToJsonAsync(resumeText, filename).join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Non-blocking variant: the cache lookup runs on the caller, the model call holds no thread while in flight.
+     * Completes with the extracted JSON, or exceptionally once OpenAI retries are exhausted.
+     */
+    public CompletableFuture<String> parseResumeToJsonAsync(String resumeText, String filename) {
+        // same extracted text + model + prompt -> same answer; skip the round trip. Nothing extracted (scanned /
+        // image-only PDF) leaves the model only the filename to go on, so those parses are never cached.
+        boolean cacheable = resumeText != null && !resumeText.isBlank();
+        String cacheKey = cacheable ? parseCache.key(resumeText, parseModel, PROMPT_VERSION) : null;
+        Optional<String> cached = cacheable ? parseCache.get(cacheKey) : Optional.empty();
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        return openAiClient.chatCompletion(requestBody(resumeText, filename))
+                // JSON handling and the cache write (JDBC) do not belong on the Netty event loop
+                .publishOn(Schedulers.boundedElastic())
+                .map(response -> {
+                    String json = extractJson(response);
+                    if (cacheable) parseCache.put(cacheKey, parseModel, PROMPT_VERSION, json);
+                    return json;
+                })
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("No response from OpenAI")))
+                .doOnError(e -> logger.error("Call to OpenAI failed: {}", e.getMessage()))
+                .toFuture();
+    }
+
+    private Map<String, Object> requestBody(String resumeText, String filename) {
         String prompt = buildPrompt(resumeText, filename);
 
         Map<String,Object> body = new HashMap<>();
@@ -48,63 +92,39 @@ public class AIParsingService {
         messages.add(Map.of("role","system","content","You are a JSON extractor for resumes. Output EXACT valid JSON with keys: personal_info, education, experience, skills, certifications."));
         messages.add(Map.of("role","user","content", prompt));
         body.put("messages", messages);
+        return body;
+    }
 
-        // Prefer injected property, fallback to OS env (helps if property binding missed)
-        String token = (openAiKey == null || openAiKey.isBlank()) ? System.getenv("OPENAI_API_KEY") : openAiKey;
-        if (token != null) token = token.trim();
-
-        if (token == null || token.isBlank()) {
-            // fail fast with a clear message instead of sending an empty header
-            throw new IllegalStateException("OpenAI API key missing. Set OPENAI_API_KEY env var or openai.api.key property.");
-        }
-
+    private String extractJson(String response) {
+        JsonNode root;
         try {
-            // Use the WebClient (OpenAiConfig already sets default Authorization header if present).
-            // We set header explicitly here only as a fallback — it's safe because token is guaranteed non-empty.
-            String response = webClient.post()
-                    .uri("/chat/completions")
-                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(body)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(40))
-                    .block();
-
-            if (response == null) throw new RuntimeException("No response from OpenAI");
-
-            JsonNode root = objectMapper.readTree(response);
-            String content = null;
-            if (root.has("choices") && root.get("choices").isArray()) {
-                JsonNode first = root.get("choices").get(0);
-                if (first.has("message") && first.get("message").has("content")) {
-                    content = first.get("message").get("content").asText();
-                } else if (first.has("text")) {
-                    content = first.get("text").asText();
-                }
-            }
-            if (content == null) throw new RuntimeException("LLM returned no content");
-
-            int start = content.indexOf('{');
-            int end = content.lastIndexOf('}');
-            String json = (start>=0 && end>start) ? content.substring(start, end+1) : content;
-            return json;
-
-        } catch (org.springframework.web.reactive.function.client.WebClientResponseException e) {
-            org.slf4j.LoggerFactory.getLogger(AIParsingService.class)
-                    .error("OpenAI responded: status={} body={}", e.getRawStatusCode(), e.getResponseBodyAsString());
-            throw e;
+            root = objectMapper.readTree(response);
         } catch (Exception e) {
-            org.slf4j.LoggerFactory.getLogger(AIParsingService.class)
-                    .error("Call to OpenAI failed: {}", e.getMessage(), e);
-            throw e;
+            throw new RuntimeException("Unreadable OpenAI response: " + e.getMessage(), e);
         }
+        String content = null;
+        if (root.has("choices") && root.get("choices").isArray()) {
+            JsonNode first = root.get("choices").get(0);
+            if (first.has("message") && first.get("message").has("content")) {
+                content = first.get("message").get("content").asText();
+            } else if (first.has("text")) {
+                content = first.get("text").asText();
+            }
+        }
+        if (content == null) throw new RuntimeException("LLM returned no content");
+
+        int start = content.indexOf('{');
+        int end = content.lastIndexOf('}');
+        return (start>=0 && end>start) ? content.substring(start, end+1) : content;
     }
 
 
     private String buildPrompt(String resumeText, String filename) {
         String schema = "Return ONLY JSON with keys: personal_info{name,email,phone,location}, education[], experience[], skills[], certifications[]";
         String instruction = "Normalize technology names and correct obvious typos. If field missing return empty array or null. Use ISO-like dates when possible.";
-        return schema + "\n" + instruction + "\nFilename: " + filename + "\nResumeText:\n" + resumeText;
+        // the filename is only a hint when no text was extracted; otherwise the prompt is exactly what the cache key covers
+        boolean noText = resumeText == null || resumeText.isBlank();
+        return schema + "\n" + instruction + (noText ? "\nFilename: " + filename : "") + "\nResumeText:\n"
+                + (resumeText == null ? "" : resumeText);
     }
 }
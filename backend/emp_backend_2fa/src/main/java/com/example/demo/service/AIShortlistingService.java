@@ -1,35 +1,53 @@
 package com.example.demo.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.cache.LruCache;
+import com.example.demo.index.KeywordMatcher;
+import com.example.demo.model.ParsedResume;
+import com.example.demo.skills.SkillSet;
+import com.example.demo.skills.SkillTaxonomy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 
-import java.time.Duration;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class AIShortlistingService {
 
     private static final Logger logger = LoggerFactory.getLogger(AIShortlistingService.class);
 
-    private final WebClient webClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Pass as jobEmbedding when the job is known to have no embedding: the job is not embedded on the spot
+     * and the skill similarity comes from the keyword fallback. Compared by identity.
+     */
+    public static final float[] NO_EMBEDDING = new float[0];
 
-    @Value("${openai.api.key:}")
-    private String openAiKey;
+    private final EmbeddingStore embeddingStore;
+    private final EmbeddingBatcher embeddingBatcher;
+    private final ParsedResumeCache parsedResumeCache;
+    private final SkillTaxonomy skillTaxonomy;
+    // compiled job side (taxonomy ids + keyword dictionary), keyed by the job text (an edited job simply gets a new entry)
+    private final LruCache<String, JobTerms> jobTermsCache;
 
     @Value("${openai.model.embeddings:text-embedding-3-large}")
     private String embeddingsModel;
 
+    @Value("${ai.score.deadline-ms:20000}")
+    private long scoreDeadlineMs;
+
     @Value("${ai.weight.skills:0.6}")
     private double weightSkills;
     @Value("${ai.weight.experience:0.25}")
@@ -37,45 +55,93 @@ public class AIShortlistingService {
     @Value("${ai.weight.education:0.15}")
     private double weightEducation;
 
-    public AIShortlistingService(WebClient openAiWebClient) {
-        this.webClient = openAiWebClient;
-        logger.info("AIShortlistingService instantiated with WebClient: {}", openAiWebClient != null);
+    public AIShortlistingService(EmbeddingStore embeddingStore, EmbeddingBatcher embeddingBatcher,
+                                 ParsedResumeCache parsedResumeCache, SkillTaxonomy skillTaxonomy,
+                                 @Value("${ai.keyword-matcher.cache-size:512}") int keywordMatcherCacheSize) {
+        this.embeddingStore = embeddingStore;
+        this.embeddingBatcher = embeddingBatcher;
+        this.parsedResumeCache = parsedResumeCache;
+        this.skillTaxonomy = skillTaxonomy;
+        this.jobTermsCache = new LruCache<>(keywordMatcherCacheSize);
+    }
+
+    private static final class JobTerms {
+        final SkillSet skills;
+        final KeywordMatcher keywords;
 
+        JobTerms(SkillSet skills, KeywordMatcher keywords) {
+            this.skills = skills;
+            this.keywords = keywords;
+        }
     }
 
     /**
-     * Call embeddings endpoint. Returns null if input text is null/blank or on failure.
+     * Embedding for the text. Served from the embedding store when this model has seen the text before,
+     * otherwise queued on the batcher (coalesced with concurrent callers) and stored. Returns null if input text is null/blank.
      */
-    public double[] embed(String text) throws Exception {
+    public float[] embed(String text) throws Exception {
         if (text == null || text.isBlank()) {
             return null;
         }
-        Map<String,Object> body = Map.of("model", embeddingsModel, "input", text);
-        String resp = webClient.post()
-                .uri("/embeddings")
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + openAiKey)
-                .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(String.class)
-                .timeout(Duration.ofSeconds(20))
-                .block();
-
-        if (resp == null || resp.isBlank()) {
-            return null;
+        float[] cached = embeddingStore.get(embeddingsModel, text);
+        if (cached != null) {
+            return cached;
         }
+        float[] vec = embeddingBatcher.await(embeddingBatcher.submit(text));
+        embeddingStore.put(embeddingsModel, text, vec);
+        return vec;
+    }
 
-        JsonNode root = objectMapper.readTree(resp);
-        JsonNode dataNode = root.get("data");
-        if (dataNode == null || !dataNode.isArray() || dataNode.size() == 0) return null;
-        JsonNode vec = dataNode.get(0).get("embedding");
-        if (vec == null || !vec.isArray()) return null;
-        double[] arr = new double[vec.size()];
-        for (int i=0;i<vec.size();i++) arr[i] = vec.get(i).asDouble();
-        return arr;
+    /**
+     * Non-blocking {@link #embed(String)}. The store lookup runs on the caller; a miss is queued on the batcher
+     * and the store write happens off the Netty event loop once the vector arrives. Completes with null for blank text.
+     */
+    public CompletableFuture<float[]> embedAsync(String text) {
+        if (text == null || text.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            float[] cached = embeddingStore.get(embeddingsModel, text);
+            if (cached != null) {
+                return CompletableFuture.completedFuture(cached);
+            }
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return Mono.fromFuture(embeddingBatcher.submit(text))
+                .publishOn(Schedulers.boundedElastic())
+                .map(vec -> {
+                    embeddingStore.put(embeddingsModel, text, vec);
+                    return vec;
+                })
+                .toFuture();
     }
 
-    public double cosine(double[] a, double[] b) {
+    /**
+     * Batch embedding API: one store round trip for the known texts, and every unknown text submitted to the
+     * batcher at once so they share as few /embeddings requests as possible. Texts that failed are absent.
+     */
+    public Map<String, float[]> embedAll(Collection<String> texts) {
+        List<String> wanted = texts.stream().filter(t -> t != null && !t.isBlank()).distinct().toList();
+        Map<String, float[]> result = new HashMap<>(embeddingStore.getAll(embeddingsModel, wanted));
+
+        Map<String, CompletableFuture<float[]>> pending = new LinkedHashMap<>();
+        for (String text : wanted) {
+            if (!result.containsKey(text)) pending.put(text, embeddingBatcher.submit(text));
+        }
+        for (Map.Entry<String, CompletableFuture<float[]>> e : pending.entrySet()) {
+            try {
+                float[] vec = embeddingBatcher.await(e.getValue());
+                embeddingStore.put(embeddingsModel, e.getKey(), vec);
+                result.put(e.getKey(), vec);
+            } catch (Exception ex) {
+                logger.warn("Embedding failed for one of {} batched inputs: {}", pending.size(), ex.getMessage());
+            }
+        }
+        return result;
+    }
+
+    public double cosine(float[] a, float[] b) {
         if (a==null || b==null) return 0.0;
         double dot=0, na=0, nb=0;
         for (int i=0;i<Math.min(a.length,b.length);i++) {
@@ -95,68 +161,138 @@ public class AIShortlistingService {
      * - Return finalScore in 0..100 scale.
      */
     public Map<String,Object> computeScore(String parsedResumeJson, String jobSkillsJson, Integer minExpYears) throws Exception {
-        String candidateSkills = extractSkills(parsedResumeJson); // may be "" if none
-        String jobSkills = jobSkillsJson == null ? "" : jobSkillsJson;
+        return computeScore(parsedResumeJson, jobSkillsJson, null, minExpYears);
+    }
 
-        double skillSim = 0.0;
-        boolean usedEmbedding = false;
+    /**
+     * Same as {@link #computeScore(String, String, Integer)} but with the job embedding already at hand,
+     * so bulk callers scoring many candidates against one job look it up once. Null jobEmbedding = embed here,
+     * {@link #NO_EMBEDDING} = keyword fallback without a remote call.
+     */
+    public Map<String,Object> computeScore(String parsedResumeJson, String jobSkillsJson, float[] jobEmbedding,
+                                           Integer minExpYears) throws Exception {
+        return computeScore(parsedResumeCache.parse(parsedResumeJson), jobSkillsJson, jobEmbedding, minExpYears);
+    }
 
-        // Attempt embedding-based similarity
+    /**
+     * Scoring on an already digested resume (see ParsedResumeCache), so the JSON is not parsed per job.
+     */
+    public Map<String,Object> computeScore(ParsedResume resume, String jobSkillsJson, float[] jobEmbedding,
+                                           Integer minExpYears) throws Exception {
         try {
-            double[] embCand = null;
-            double[] embJob = null;
-            try {
-                embCand = embed(candidateSkills);
-            } catch (Exception e) {
-                logger.warn("Embedding call for candidate failed: {}", e.getMessage());
-            }
-            try {
-                embJob = embed(jobSkills);
-            } catch (Exception e) {
-                logger.warn("Embedding call for job failed: {}", e.getMessage());
+            // every lookup is bounded by the shared deadline, so this join cannot outlive it
+            return computeScoreAsync(resume, jobSkillsJson, jobEmbedding, minExpYears).join();
+        } catch (CompletionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Non-blocking {@link #computeScore(String, String, float[], Integer)}. The independent remote lookups
+     * (candidate and job embedding) start together and share one deadline ({@code ai.score.deadline-ms}),
+     * so a score costs the slowest lookup rather than their sum. A lookup that fails or misses the deadline
+     * degrades to the keyword fallback. Per-component wall times land in the breakdown under "timings".
+     */
+    public CompletableFuture<Map<String,Object>> computeScoreAsync(String parsedResumeJson, String jobSkillsJson,
+                                                                   float[] jobEmbedding, Integer minExpYears) {
+        return computeScoreAsync(parsedResumeCache.parse(parsedResumeJson), jobSkillsJson, jobEmbedding, minExpYears);
+    }
+
+    public CompletableFuture<Map<String,Object>> computeScoreAsync(ParsedResume resume, String jobSkillsJson,
+                                                                   float[] jobEmbedding, Integer minExpYears) {
+        long started = System.nanoTime();
+        String candidateSkills = resume.getSkillsText();
+        String jobSkills = jobSkillsJson == null ? "" : jobSkillsJson;
+        Map<String,Object> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+        CompletableFuture<float[]> embCand = lookup("candidateEmbedding", () -> embedAsync(candidateSkills), started, timings);
+        CompletableFuture<float[]> embJob = jobEmbedding != null
+                ? CompletableFuture.completedFuture(jobEmbedding == NO_EMBEDDING ? null : jobEmbedding)
+                : lookup("jobEmbedding", () -> embedAsync(jobSkills), started, timings);
+
+        return embCand.thenCombine(embJob, (cand, job) -> {
+            long scoringStarted = System.nanoTime();
+            Map<String,Object> res = scoreWith(resume, jobSkills, cand, job, minExpYears);
+            long now = System.nanoTime();
+            synchronized (timings) {
+                timings.put("scoringMs", TimeUnit.NANOSECONDS.toMillis(now - scoringStarted));
+                timings.put("totalMs", TimeUnit.NANOSECONDS.toMillis(now - started));
+                res.put("timings", new LinkedHashMap<>(timings));
             }
+            return res;
+        });
+    }
 
-            if (embCand != null && embJob != null) {
-                skillSim = cosine(embCand, embJob);
-                usedEmbedding = true;
-            } else {
-                usedEmbedding = false;
+    // One remote lookup under the shared deadline: failures and timeouts complete with null (-> fallback)
+    private <T> CompletableFuture<T> lookup(String name, Supplier<CompletableFuture<T>> call, long started,
+                                            Map<String,Object> timings) {
+        long remainingMs = scoreDeadlineMs - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        CompletableFuture<T> future = start(call);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        future.whenComplete((value, err) -> {
+            timings.put(name + "Ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            if (err != null) {
+                logger.warn("Lookup {} failed: {}", name, err.getMessage());
+                timings.put(name + "Failed", true);
             }
-        } catch (Exception ex) {
-            // If anything unexpected happens, fallback to keyword method below
-            logger.warn("Embedding-based similarity failed unexpectedly: {}", ex.getMessage(), ex);
-            usedEmbedding = false;
-            skillSim = 0.0;
+            result.complete(err == null ? value : null);
+        });
+        return result.completeOnTimeout(null, Math.max(0, remainingMs), TimeUnit.MILLISECONDS)
+                .whenComplete((value, err) -> {
+                    if (!future.isDone()) {
+                        logger.warn("Lookup {} missed the {} ms scoring deadline", name, scoreDeadlineMs);
+                        timings.put(name + "TimedOut", true);
+                    }
+                });
+    }
+
+    private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Map<String,Object> scoreWith(ParsedResume resume, String jobSkills,
+                                         float[] embCand, float[] embJob, Integer minExpYears) {
+        double skillSim = 0.0;
+        boolean usedEmbedding = false;
+
+        if (embCand != null && embJob != null) {
+            skillSim = cosine(embCand, embJob);
+            usedEmbedding = true;
         }
 
         // Fallback: keyword/token based similarity if embedding not used or result is too small
         if (!usedEmbedding || skillSim <= 0.0001) {
-            String fallbackText = candidateSkills;
-            if (fallbackText == null || fallbackText.isBlank()) {
-                // try to extract a 'text' field from parsedJson if present
-                try {
-                    JsonNode root = objectMapper.readTree(parsedResumeJson);
-                    if (root.has("text")) fallbackText = root.get("text").asText("");
-                    else {
-                        // attempt to gather other fields like title/summary/experience descriptions
-                        StringBuilder sb = new StringBuilder();
-                        if (root.has("experience") && root.get("experience").isArray()) {
-                            for (JsonNode e : root.get("experience")) {
-                                if (e.has("title")) sb.append(" ").append(e.get("title").asText());
-                                if (e.has("description")) sb.append(" ").append(e.get("description").asText());
-                            }
-                        }
-                        if (sb.length() > 0) fallbackText = sb.toString();
-                    }
-                } catch (Exception ex) {
-                    // ignore parse errors, fallbackText remains candidateSkills or ""
-                }
+            JobTerms terms = jobTerms(jobSkills);
+            if (!terms.skills.isEmpty() && !resume.getSkillSet().isEmpty()) {
+                // both sides resolved to taxonomy ids: share of the job's known skills the candidate has
+                skillSim = resume.getSkillSet().coverageOf(terms.skills);
+            } else {
+                // skills, else a 'text' field, else experience titles/descriptions (resolved when the resume was parsed)
+                skillSim = terms.keywords.score(resume.getFallbackText());
             }
-            skillSim = keywordSimilarityScore(fallbackText, jobSkills);
         }
 
-        double expSim = computeExp(parsedResumeJson, minExpYears);
-        double eduSim = computeEdu(parsedResumeJson);
+        Map<String,Object> res = weigh(resume, skillSim, minExpYears);
+        res.put("usedEmbedding", usedEmbedding);
+
+        logger.info("Shortlist computed -> finalScore={}, skillSim={}, expSim={}, eduSim={}, usedEmbedding={}",
+                res.get("finalScore"), skillSim, res.get("expSim"), res.get("eduSim"), usedEmbedding);
+
+        return res;
+    }
+
+    /**
+     * Applies the {@code ai.weight.*} experience / education weighting to a skill similarity (0..1) computed
+     * elsewhere, e.g. the fused lexical + vector relevance of hybrid ranking. Returns finalScore (0..100),
+     * skillSim, expSim and eduSim.
+     */
+    public Map<String,Object> weigh(ParsedResume resume, double skillSim, Integer minExpYears) {
+        double expSim = computeExp(resume, minExpYears);
+        double eduSim = computeEdu(resume);
 
         double combined = weightSkills * skillSim + weightExperience * expSim + weightEducation * eduSim;
 
@@ -171,93 +307,35 @@ public class AIShortlistingService {
         res.put("skillSim", skillSim);
         res.put("expSim", expSim);
         res.put("eduSim", eduSim);
-        res.put("usedEmbedding", usedEmbedding);
-
-        logger.info("Shortlist computed -> finalScore={}, skillSim={}, expSim={}, eduSim={}, usedEmbedding={}",
-                finalScore, skillSim, expSim, eduSim, usedEmbedding);
-
         return res;
     }
 
-    private String extractSkills(String parsedJson) {
-        try {
-            if (parsedJson == null || parsedJson.isBlank()) return "";
-            JsonNode root = objectMapper.readTree(parsedJson);
-            JsonNode skills = root.get("skills");
-            if (skills!=null && skills.isArray()) {
-                StringBuilder sb = new StringBuilder();
-                for (JsonNode s: skills) {
-                    if (sb.length()>0) sb.append("; ");
-                    sb.append(s.asText());
-                }
-                return sb.toString();
-            }
-        } catch (Exception e){
-            logger.warn("extractSkills failed: {}", e.getMessage());
-        }
-        return "";
+    /**
+     * Skills text of a parsed resume ("a; b; c"), the text candidate embeddings are computed over. "" if none.
+     */
+    public String extractSkills(String parsedJson) {
+        return ParsedResume.parse(parsedJson).getSkillsText();
     }
 
-    private double computeExp(String parsedJson, Integer minYears) {
+    private double computeExp(ParsedResume resume, Integer minYears) {
         if (minYears==null || minYears<=0) return 1.0;
-        try {
-            JsonNode root = objectMapper.readTree(parsedJson);
-            JsonNode exp = root.get("experience");
-            int years=0;
-            if (exp!=null && exp.isArray()) {
-                for (JsonNode e: exp) {
-                    String s = e.has("start")?e.get("start").asText():null;
-                    String en = e.has("end")?e.get("end").asText():null;
-                    try {
-                        if (s!=null && s.length()>=4) {
-                            int sy = Integer.parseInt(s.substring(0,4));
-                            int ey = (en!=null && en.length()>=4) ? Integer.parseInt(en.substring(0,4)) : java.time.Year.now().getValue();
-                            years += Math.max(0, ey - sy);
-                        }
-                    } catch (Exception ex){ }
-                }
-            }
-            return Math.min(1.0, (double) years / (double) minYears);
-        } catch (Exception e) {
-            logger.warn("computeExp failed: {}", e.getMessage());
-            return 0.0;
-        }
+        return Math.min(1.0, (double) resume.experienceYears() / (double) minYears);
     }
 
-    private double computeEdu(String parsedJson) {
-        try {
-            JsonNode root = objectMapper.readTree(parsedJson);
-            JsonNode edu = root.get("education");
-            if (edu!=null && edu.isArray() && edu.size()>0) return 0.8;
-        } catch (Exception e) {
-            logger.warn("computeEdu failed: {}", e.getMessage());
-        }
-        return 0.0;
+    private double computeEdu(ParsedResume resume) {
+        return resume.hasEducation() ? 0.8 : 0.0;
     }
 
     /**
-     * Simple keyword/token overlap based similarity (0..1).
-     * Counts how many distinct job tokens appear in candidate text.
+     * Job side of the non-embedding skill match, compiled once per job text: taxonomy skill ids for the
+     * bitset overlap, and a keyword dictionary for when either side has no known skills.
      */
-    private double keywordSimilarityScore(String candidateText, String jobSkills) {
-        if (jobSkills == null || jobSkills.isBlank()) return 0.0;
-        if (candidateText == null) candidateText = "";
-
-        String cand = candidateText.toLowerCase().replaceAll("[^a-z0-9, ]", " ");
-        String job = jobSkills.toLowerCase().replaceAll("[^a-z0-9, ]", " ");
-
-        Set<String> jobTokens = new HashSet<>();
-        for (String t : job.split("[,;\\s]+")) {
-            String tk = t.trim();
-            if (tk.length() > 1) jobTokens.add(tk);
-        }
-        if (jobTokens.isEmpty()) return 0.0;
-
-        int matches = 0;
-        for (String tk : jobTokens) {
-            if (cand.contains(tk)) matches++;
+    private JobTerms jobTerms(String jobSkills) {
+        JobTerms terms = jobTermsCache.get(jobSkills);
+        if (terms == null) {
+            terms = new JobTerms(skillTaxonomy.skillSet(jobSkills), KeywordMatcher.compile(jobSkills));
+            jobTermsCache.put(jobSkills, terms);
         }
-        double sim = (double) matches / (double) jobTokens.size();
-        return sim; // 0..1
+        return terms;
     }
 }
@@ -2,12 +2,14 @@ package com.example.demo.service;
 
 import java.util.Optional;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.adminModel.AdminModel;
+import com.example.demo.adminModel.AdminPrincipal;
 import com.example.demo.adminRepository.AdminRepository;
+import com.example.demo.cache.LruCache;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,18 +20,60 @@ public class AdminService {
     private static final Logger log = LoggerFactory.getLogger(AdminService.class);
 
     private final AdminRepository adminRepo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
+    private final TokenRevocationService revocationService;
 
-    public AdminService(AdminRepository adminRepo, PasswordEncoder passwordEncoder) {
+    // adminName -> principal snapshot; written through on every admin save done here, TTL bounds staleness
+    // for changes made on other nodes
+    private final LruCache<String, CachedPrincipal> principals;
+    private final long principalTtlMillis;
+
+    private static final class CachedPrincipal {
+        final AdminPrincipal principal;
+        final long loadedAt;
+
+        CachedPrincipal(AdminPrincipal principal, long loadedAt) {
+            this.principal = principal;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    public AdminService(AdminRepository adminRepo, PasswordHashingService passwordHashing,
+                        TokenRevocationService revocationService,
+                        @Value("${admin.principal-cache.max-entries:1000}") int principalCacheMaxEntries,
+                        @Value("${admin.principal-cache.ttl-seconds:300}") long principalCacheTtlSeconds) {
         this.adminRepo = adminRepo;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.revocationService = revocationService;
+        this.principals = new LruCache<>(principalCacheMaxEntries);
+        this.principalTtlMillis = principalCacheTtlSeconds * 1000L;
+    }
+
+    /**
+     * Cached principal (role, 2FA flag, secret) for auth / 2FA flows. Only a miss or an expired entry hits MySQL.
+     */
+    public Optional<AdminPrincipal> getPrincipal(String adminName) {
+        if (adminName == null) return Optional.empty();
+        CachedPrincipal cached = principals.get(adminName);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt < principalTtlMillis) {
+            return Optional.of(cached.principal);
+        }
+        return adminRepo.findByAdminName(adminName).map(this::cachePrincipal);
     }
 
-    // Login check using hashed password verification
+    private AdminPrincipal cachePrincipal(AdminModel admin) {
+        AdminPrincipal principal = AdminPrincipal.of(admin);
+        principals.put(admin.getAdminName(), new CachedPrincipal(principal, System.currentTimeMillis()));
+        return principal;
+    }
+
+    // Login check using hashed password verification (BCrypt runs on the hashing pool; 429 when saturated)
     public Optional<AdminModel> login(String adminName, String adminPassword) {
         if (adminName == null || adminPassword == null) return Optional.empty();
-        return adminRepo.findByAdminName(adminName)
-                .filter(admin -> passwordEncoder.matches(adminPassword, admin.getAdminPassword()));
+        Optional<AdminModel> admin = adminRepo.findByAdminName(adminName)
+                .filter(a -> passwordHashing.matches(adminPassword, a.getAdminPassword()));
+        admin.ifPresent(this::cachePrincipal);
+        return admin;
     }
 
     // Forgot password (reset) - securely hash new password
@@ -37,8 +81,12 @@ public class AdminService {
         if (adminName == null || newPassword == null) return Optional.empty();
         return adminRepo.findByAdminName(adminName)
                 .map(admin -> {
-                    admin.setAdminPassword(passwordEncoder.encode(newPassword));
-                    return adminRepo.save(admin);
+                    admin.setAdminPassword(passwordHashing.encode(newPassword));
+                    AdminModel saved = adminRepo.save(admin);
+                    cachePrincipal(saved);
+                    // tokens issued with the old password stop working
+                    revocationService.revokeAllFor(adminName);
+                    return saved;
                 });
     }
 
@@ -52,8 +100,10 @@ public class AdminService {
     public AdminModel register(AdminModel admin) {
         if (admin == null) throw new IllegalArgumentException("admin must not be null");
         if (admin.getAdminPassword() == null) throw new IllegalArgumentException("password required");
-        admin.setAdminPassword(passwordEncoder.encode(admin.getAdminPassword()));
-        return adminRepo.save(admin);
+        admin.setAdminPassword(passwordHashing.encode(admin.getAdminPassword()));
+        AdminModel saved = adminRepo.save(admin);
+        cachePrincipal(saved);
+        return saved;
     }
 
     // Save generated 2FA secret (do not enable yet)
@@ -72,6 +122,7 @@ public class AdminService {
         user.setTwoFactorSecret(secret);
         user.setTwoFactorEnabled(false);
         AdminModel saved = adminRepo.save(user);
+        cachePrincipal(saved);
         log.info("saveTwoFaSecret: saved secret for user='{}' id={}", username, saved.getAdminID());
         return Optional.of(saved);
     }
@@ -84,6 +135,9 @@ public class AdminService {
         return adminRepo.findByAdminName(username).map(admin -> {
             admin.setTwoFactorEnabled(true);
             AdminModel saved = adminRepo.save(admin);
+            cachePrincipal(saved);
+            // sessions opened without the second factor are ended; the caller hands out a fresh token
+            revocationService.revokeAllFor(username);
             log.info("2FA enabled for user={}", username); // do not log secret
             return saved;
         });
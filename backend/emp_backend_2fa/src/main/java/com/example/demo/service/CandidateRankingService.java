@@ -0,0 +1,462 @@
+package com.example.demo.service;
+
+import com.example.demo.config.WorkerThreads;
+import com.example.demo.exception.IndexNotReadyException;
+import com.example.demo.index.CandidateVectorIndex;
+import com.example.demo.index.FlatVectorIndex;
+import com.example.demo.index.ResumeSearchIndex;
+import com.example.demo.model.Employee;
+import com.example.demo.model.Job;
+import com.example.demo.model.ParsedResume;
+import com.example.demo.model.ShortlistResult;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.JobRepository;
+import com.example.demo.repository.ShortlistResultRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job-level ranking: score every candidate with a parsed resume against one job in parallel.
+ *
+ * The job embedding is resolved once and shared by every score; candidate embeddings that are not in the
+ * store yet are requested concurrently from the worker threads and therefore coalesce in the
+ * {@link EmbeddingBatcher}. Results are kept in a bounded min-heap (top-K) and every computed score is
+ * written to shortlist_results with one batched insert. The reverse question (best jobs for one candidate)
+ * runs on the same executor.
+ */
+@Service
+public class CandidateRankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CandidateRankingService.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final JobRepository jobRepository;
+    private final ShortlistResultRepository shortlistResultRepository;
+    private final AIShortlistingService shortlistingService;
+    private final CandidateVectorIndex candidateIndex;
+    private final ResumeSearchIndex searchIndex;
+    private final ParsedResumeCache parsedResumeCache;
+    private final WorkerThreads workerThreads;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${ai.ranking.concurrency:8}")
+    private int concurrency;
+    @Value("${ai.ranking.queue-capacity:1000}")
+    private int queueCapacity;
+    @Value("${ai.hybrid.candidates:100}")
+    private int hybridCandidates;
+    @Value("${ai.hybrid.rrf-k:60}")
+    private int rrfK;
+
+    private ThreadPoolExecutor rankingExecutor;
+
+    public CandidateRankingService(EmployeeRepository employeeRepository,
+                                   JobRepository jobRepository,
+                                   ShortlistResultRepository shortlistResultRepository,
+                                   AIShortlistingService shortlistingService,
+                                   CandidateVectorIndex candidateIndex,
+                                   ResumeSearchIndex searchIndex,
+                                   ParsedResumeCache parsedResumeCache,
+                                   WorkerThreads workerThreads) {
+        this.employeeRepository = employeeRepository;
+        this.jobRepository = jobRepository;
+        this.shortlistResultRepository = shortlistResultRepository;
+        this.shortlistingService = shortlistingService;
+        this.candidateIndex = candidateIndex;
+        this.searchIndex = searchIndex;
+        this.parsedResumeCache = parsedResumeCache;
+        this.workerThreads = workerThreads;
+    }
+
+    @PostConstruct
+    public void init() {
+        // caller-runs: when the queue is full the requesting thread scores candidates itself (natural backpressure)
+        rankingExecutor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                workerThreads.blocking("ranking"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rankingExecutor.shutdown();
+    }
+
+    /**
+     * Precompute job embeddings in the background so the first candidate-to-jobs lookup finds them in the store.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmJobEmbeddings() {
+        CompletableFuture.runAsync(() -> {
+            try {
+                List<String> texts = jobRepository.findAll().stream().map(this::jobText).toList();
+                int embedded = shortlistingService.embedAll(texts).size();
+                logger.info("Warmed embeddings for {} of {} jobs", embedded, texts.size());
+            } catch (Exception e) {
+                logger.warn("Job embedding warm-up failed: {}", e.getMessage());
+            }
+        }, rankingExecutor);
+    }
+
+    /**
+     * Text the job is matched on: required skills when present, else the description.
+     */
+    public String jobText(Job job) {
+        return (job.getRequiredSkills() != null && !job.getRequiredSkills().isBlank())
+                ? job.getRequiredSkills()
+                : (job.getDescription() != null ? job.getDescription() : "");
+    }
+
+    /**
+     * Score every employee with a parsed resume against the job and return the top-K.
+     */
+    public Map<String, Object> rankCandidates(Job job, int topK) {
+        long started = System.currentTimeMillis();
+        int k = Math.max(1, topK);
+        String jobText = jobText(job);
+
+        float[] jobVec;
+        try {
+            jobVec = shortlistingService.embed(jobText);
+        } catch (Exception e) {
+            logger.warn("Job embedding failed for jobId={}, candidates fall back to keyword scoring: {}", job.getId(), e.getMessage());
+            // not null: that would make every candidate task retry the job embedding on its own
+            jobVec = AIShortlistingService.NO_EMBEDDING;
+        }
+        final float[] sharedJobVec = jobVec;
+
+        List<Employee> candidates = employeeRepository.findByResumeParsedTextIsNotNull();
+        List<CompletableFuture<Scored>> futures = new ArrayList<>(candidates.size());
+        for (Employee emp : candidates) {
+            futures.add(CompletableFuture.supplyAsync(() -> score(emp, job.getId(), jobText, sharedJobVec), rankingExecutor));
+        }
+
+        PriorityQueue<Scored> top = new PriorityQueue<>(k + 1, Comparator.comparingDouble((Scored s) -> s.finalScore));
+        List<ShortlistResult> rows = new ArrayList<>(candidates.size());
+        int failed = 0;
+        for (CompletableFuture<Scored> f : futures) {
+            Scored s = f.join();
+            if (s == null) {
+                failed++;
+                continue;
+            }
+            rows.add(s.row);
+            top.offer(s);
+            if (top.size() > k) top.poll();
+        }
+
+        try {
+            shortlistResultRepository.batchInsert(rows);
+        } catch (Exception e) {
+            logger.error("Persisting {} shortlist results for jobId={} failed: {}", rows.size(), job.getId(), e.getMessage(), e);
+        }
+
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(Comparator.comparingDouble((Scored s) -> s.finalScore).reversed());
+        List<Map<String, Object>> ranking = new ArrayList<>(ranked.size());
+        for (int i = 0; i < ranked.size(); i++) {
+            Scored s = ranked.get(i);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", i + 1);
+            entry.put("employeeId", s.employee.getId());
+            entry.put("name", (nullToEmpty(s.employee.getFname()) + " " + nullToEmpty(s.employee.getLname())).trim());
+            entry.put("email", s.employee.getEmail());
+            entry.put("finalScore", s.finalScore);
+            entry.put("breakdown", s.breakdown);
+            ranking.add(entry);
+        }
+
+        long took = System.currentTimeMillis() - started;
+        logger.info("Ranked {} candidates for jobId={} (failed={}) in {} ms", rows.size(), job.getId(), failed, took);
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("jobId", job.getId());
+        res.put("candidatesScored", rows.size());
+        res.put("failed", failed);
+        res.put("tookMs", took);
+        res.put("topK", ranking);
+        return res;
+    }
+
+    /**
+     * Reverse lookup: score one candidate against every job and return the best {@code limit} matches.
+     *
+     * Job embeddings come from the store in one bulk lookup (precomputed at startup); the candidate's own
+     * embedding is resolved once and then served from the in-memory store for every job. Jobs the bulk lookup
+     * could not embed are scored with the keyword fallback, with no per-job remote call. Read-only: nothing is
+     * persisted.
+     */
+    public Map<String, Object> rankJobsForCandidate(Employee emp, int limit) {
+        long started = System.currentTimeMillis();
+        ParsedResume resume = parsedResumeCache.forEmployee(emp);
+
+        List<Job> jobs = jobRepository.findAll();
+        Map<String, float[]> jobVectors = shortlistingService.embedAll(jobs.stream().map(this::jobText).toList());
+        try {
+            shortlistingService.embed(resume.getSkillsText());
+        } catch (Exception e) {
+            logger.warn("Candidate embedding failed for employeeId={}, jobs fall back to keyword scoring: {}", emp.getId(), e.getMessage());
+        }
+
+        List<CompletableFuture<JobMatch>> futures = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            String text = jobText(job);
+            float[] jobVec = jobVectors.get(text) != null ? jobVectors.get(text) : AIShortlistingService.NO_EMBEDDING;
+            futures.add(CompletableFuture.supplyAsync(() -> scoreJob(resume, job, text, jobVec), rankingExecutor));
+        }
+
+        List<JobMatch> matches = new ArrayList<>(jobs.size());
+        int failed = 0;
+        for (CompletableFuture<JobMatch> f : futures) {
+            JobMatch m = f.join();
+            if (m == null) failed++;
+            else matches.add(m);
+        }
+        matches.sort(Comparator.comparingDouble((JobMatch m) -> m.finalScore).reversed());
+
+        List<Map<String, Object>> ranking = new ArrayList<>();
+        for (int i = 0; i < Math.min(Math.max(1, limit), matches.size()); i++) {
+            JobMatch m = matches.get(i);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", i + 1);
+            entry.put("jobId", m.job.getId());
+            entry.put("title", m.job.getTitle());
+            entry.put("finalScore", m.finalScore);
+            entry.put("breakdown", m.breakdown);
+            ranking.add(entry);
+        }
+
+        long took = System.currentTimeMillis() - started;
+        logger.info("Scored employeeId={} against {} jobs (failed={}) in {} ms", emp.getId(), matches.size(), failed, took);
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("employeeId", emp.getId());
+        res.put("jobsScored", matches.size());
+        res.put("failed", failed);
+        res.put("tookMs", took);
+        res.put("matches", ranking);
+        return res;
+    }
+
+    /**
+     * Nearest candidates to the job by skills-embedding similarity, served from the in-memory index.
+     * Nothing is scored or persisted; use {@link #rankCandidates} for full breakdowns.
+     */
+    public Map<String, Object> nearestCandidates(Job job, int k) throws Exception {
+        long started = System.currentTimeMillis();
+        float[] jobVec = shortlistingService.embed(jobText(job));
+        if (jobVec == null) {
+            throw new IllegalArgumentException("Job " + job.getId() + " has no skills or description to match on");
+        }
+
+        List<FlatVectorIndex.Hit> hits = candidateIndex.nearest(jobVec, Math.max(1, k));
+        Map<Long, Employee> byId = new HashMap<>();
+        for (Employee emp : employeeRepository.findAllById(hits.stream().map(FlatVectorIndex.Hit::getId).toList())) {
+            byId.put(emp.getId(), emp);
+        }
+
+        List<Map<String, Object>> candidates = new ArrayList<>(hits.size());
+        for (FlatVectorIndex.Hit hit : hits) {
+            Employee emp = byId.get(hit.getId());
+            if (emp == null) continue; // deleted after the lookup; the index catches up on the event
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", candidates.size() + 1);
+            entry.put("employeeId", emp.getId());
+            entry.put("name", (nullToEmpty(emp.getFname()) + " " + nullToEmpty(emp.getLname())).trim());
+            entry.put("email", emp.getEmail());
+            entry.put("similarity", hit.getScore());
+            candidates.add(entry);
+        }
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("jobId", job.getId());
+        res.put("indexSize", candidateIndex.size());
+        res.put("tookMs", System.currentTimeMillis() - started);
+        res.put("candidates", candidates);
+        return res;
+    }
+
+    /**
+     * Hybrid ranking: the top {@code ai.hybrid.candidates} resumes from the Lucene index (BM25 on the job text)
+     * and from the vector index (embedding similarity) are fused with reciprocal-rank fusion,
+     * {@code sum 1 / (ai.hybrid.rrf-k + rank)}, and only that pool gets the experience / education weighting.
+     * The fused score, scaled so rank 1 in every list that returned hits is 1.0, stands in for skillSim.
+     *
+     * Uses whichever index is ready (one list alone still ranks); throws IndexNotReadyException when neither
+     * is. Read-only: the scale differs from {@link #rankCandidates}, so nothing goes to shortlist_results.
+     */
+    public Map<String, Object> rankCandidatesHybrid(Job job, int topK) throws Exception {
+        long started = System.currentTimeMillis();
+        boolean vectorReady = candidateIndex.isReady();
+        boolean lexicalReady = searchIndex.isReady();
+        if (!vectorReady && !lexicalReady) {
+            throw new IndexNotReadyException("Candidate and search indexes are not ready yet, use mode=full or retry shortly");
+        }
+        String jobText = jobText(job);
+        int n = Math.max(Math.max(1, topK), hybridCandidates);
+
+        List<FlatVectorIndex.Hit> vectorHits = List.of();
+        if (vectorReady) {
+            try {
+                float[] jobVec = shortlistingService.embed(jobText);
+                if (jobVec != null) vectorHits = candidateIndex.nearest(jobVec, n);
+            } catch (Exception e) {
+                logger.warn("Job embedding failed for jobId={}, hybrid ranking uses the lexical list only: {}", job.getId(), e.getMessage());
+            }
+        }
+        List<FlatVectorIndex.Hit> lexicalHits = lexicalReady ? searchIndex.topMatches(jobText, n) : List.of();
+
+        Map<Long, Fused> pool = new LinkedHashMap<>();
+        for (int i = 0; i < vectorHits.size(); i++) {
+            FlatVectorIndex.Hit hit = vectorHits.get(i);
+            Fused f = pool.computeIfAbsent(hit.getId(), id -> new Fused());
+            f.vectorRank = i + 1;
+            f.similarity = hit.getScore();
+            f.rrf += 1.0 / (rrfK + i + 1);
+        }
+        for (int i = 0; i < lexicalHits.size(); i++) {
+            FlatVectorIndex.Hit hit = lexicalHits.get(i);
+            Fused f = pool.computeIfAbsent(hit.getId(), id -> new Fused());
+            f.lexicalRank = i + 1;
+            f.bm25 = hit.getScore();
+            f.rrf += 1.0 / (rrfK + i + 1);
+        }
+        // best possible fused score given the lists that actually returned hits (rank 1 in each)
+        List<String> lists = new ArrayList<>(2);
+        if (!vectorHits.isEmpty()) lists.add("vector");
+        if (!lexicalHits.isEmpty()) lists.add("lexical");
+        double maxRrf = Math.max(1, lists.size()) / (rrfK + 1.0);
+
+        List<Scored> scored = new ArrayList<>(pool.size());
+        for (Employee emp : employeeRepository.findAllById(pool.keySet())) {
+            Fused f = pool.get(emp.getId());
+            Map<String, Object> breakdown = shortlistingService.weigh(parsedResumeCache.forEmployee(emp), f.rrf / maxRrf, null);
+            breakdown.put("mode", "hybrid");
+            breakdown.put("vectorRank", f.vectorRank);
+            breakdown.put("lexicalRank", f.lexicalRank);
+            breakdown.put("similarity", f.similarity);
+            breakdown.put("bm25", f.bm25);
+            breakdown.put("rrf", f.rrf);
+            Object fs = breakdown.get("finalScore");
+            scored.add(new Scored(emp, fs instanceof Number ? ((Number) fs).doubleValue() : 0.0, breakdown, null));
+        }
+        scored.sort(Comparator.comparingDouble((Scored s) -> s.finalScore).reversed());
+
+        List<Map<String, Object>> ranking = new ArrayList<>();
+        for (int i = 0; i < Math.min(Math.max(1, topK), scored.size()); i++) {
+            Scored s = scored.get(i);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rank", i + 1);
+            entry.put("employeeId", s.employee.getId());
+            entry.put("name", (nullToEmpty(s.employee.getFname()) + " " + nullToEmpty(s.employee.getLname())).trim());
+            entry.put("email", s.employee.getEmail());
+            entry.put("finalScore", s.finalScore);
+            entry.put("breakdown", s.breakdown);
+            ranking.add(entry);
+        }
+
+        long took = System.currentTimeMillis() - started;
+        logger.info("Hybrid-ranked {} candidates for jobId={} from {} (vector={}, lexical={}) in {} ms",
+                scored.size(), job.getId(), lists, vectorHits.size(), lexicalHits.size(), took);
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("jobId", job.getId());
+        res.put("mode", "hybrid");
+        res.put("lists", lists);
+        res.put("vectorCandidates", vectorHits.size());
+        res.put("lexicalCandidates", lexicalHits.size());
+        res.put("candidatesScored", scored.size());
+        res.put("tookMs", took);
+        res.put("topK", ranking);
+        return res;
+    }
+
+    private Scored score(Employee emp, Long jobId, String jobText, float[] jobVec) {
+        try {
+            Map<String, Object> breakdown = shortlistingService.computeScore(parsedResumeCache.forEmployee(emp), jobText, jobVec, null);
+            Object fs = breakdown.get("finalScore");
+            double finalScore = fs instanceof Number ? ((Number) fs).doubleValue() : 0.0;
+
+            ShortlistResult row = new ShortlistResult();
+            row.setJobId(jobId);
+            row.setEmployeeId(emp.getId());
+            row.setScore(finalScore);
+            row.setBreakdownJson(objectMapper.writeValueAsString(breakdown));
+            return new Scored(emp, finalScore, breakdown, row);
+        } catch (Exception e) {
+            logger.warn("Scoring employeeId={} failed: {}", emp.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private JobMatch scoreJob(ParsedResume resume, Job job, String jobText, float[] jobVec) {
+        try {
+            Map<String, Object> breakdown = shortlistingService.computeScore(resume, jobText, jobVec, null);
+            Object fs = breakdown.get("finalScore");
+            return new JobMatch(job, fs instanceof Number ? ((Number) fs).doubleValue() : 0.0, breakdown);
+        } catch (Exception e) {
+            logger.warn("Scoring jobId={} failed: {}", job.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static final class Scored {
+        final Employee employee;
+        final double finalScore;
+        final Map<String, Object> breakdown;
+        final ShortlistResult row;
+
+        Scored(Employee employee, double finalScore, Map<String, Object> breakdown, ShortlistResult row) {
+            this.employee = employee;
+            this.finalScore = finalScore;
+            this.breakdown = breakdown;
+            this.row = row;
+        }
+    }
+
+    // one candidate's positions in the vector / lexical lists (null when absent) and their fused score
+    private static final class Fused {
+        Integer vectorRank;
+        Integer lexicalRank;
+        Float similarity;
+        Float bm25;
+        double rrf;
+    }
+
+    private static final class JobMatch {
+        final Job job;
+        final double finalScore;
+        final Map<String, Object> breakdown;
+
+        JobMatch(Job job, double finalScore, Map<String, Object> breakdown) {
+            this.job = job;
+            this.finalScore = finalScore;
+            this.breakdown = breakdown;
+        }
+    }
+}
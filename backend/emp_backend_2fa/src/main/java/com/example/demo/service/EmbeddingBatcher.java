@@ -0,0 +1,220 @@
+package com.example.demo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces embedding requests from concurrent callers into array-input calls to /embeddings.
+ *
+ * A single flusher thread takes the first waiting text, then keeps collecting until either
+ * {@code ai.embeddings.batch.max-size} texts are pending or {@code ai.embeddings.batch.linger-ms}
+ * has passed, and sends them as one request. The response's {@code data[].index} routes each vector
+ * back to the caller's future. Identical texts in one batch share a single input slot.
+ */
+@Service
+public class EmbeddingBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingBatcher.class);
+
+    private final OpenAiClient openAiClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+
+    private final Counter requests;
+    private final DistributionSummary batchSizes;
+
+    @Value("${openai.model.embeddings:text-embedding-3-large}")
+    private String embeddingsModel;
+
+    @Value("${ai.embeddings.batch.max-size:64}")
+    private int maxBatchSize;
+    @Value("${ai.embeddings.batch.linger-ms:20}")
+    private long lingerMs;
+    @Value("${ai.embeddings.batch.max-concurrent:4}")
+    private int maxConcurrentBatches;
+
+    private Semaphore inFlight;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public EmbeddingBatcher(OpenAiClient openAiClient, MeterRegistry meterRegistry) {
+        this.openAiClient = openAiClient;
+        this.requests = Counter.builder("embedding.batch.requests").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("embedding.batch.size").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        inFlight = new Semaphore(Math.max(1, maxConcurrentBatches));
+        running = true;
+        flusher = new Thread(this::flushLoop, "embedding-batcher");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("EmbeddingBatcher started: maxBatchSize={}, lingerMs={}, maxConcurrentBatches={}",
+                maxBatchSize, lingerMs, maxConcurrentBatches);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        flusher.interrupt();
+        List<Pending> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left, new IllegalStateException("Embedding batcher stopped"));
+    }
+
+    /**
+     * Queue a text for the next batch. The future completes with the vector, or exceptionally
+     * if the batch request failed, the response had no vector for this text, or the request deadline
+     * plus linger passed since submit (time spent queued behind busy batches counts).
+     */
+    public CompletableFuture<float[]> submit(String text) {
+        CompletableFuture<float[]> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("Embedding batcher stopped"));
+            return future;
+        }
+        future.orTimeout(openAiClient.embeddingsDeadline().toMillis() + lingerMs + 1000, TimeUnit.MILLISECONDS);
+        queue.add(new Pending(text, future));
+        return future;
+    }
+
+    /**
+     * Blocking convenience for callers that are already on a worker thread. Bounded by the deadline set at
+     * submit, so waiting here never extends it.
+     */
+    public float[] await(CompletableFuture<float[]> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof Exception) ? (Exception) e.getCause() : e;
+        }
+    }
+
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                // caps concurrent HTTP calls; while all slots are busy the next batch keeps growing
+                inFlight.acquire();
+                // callers whose deadline passed while queued have given up; do not spend tokens on them
+                batch.removeIf(p -> p.future.isDone());
+                if (batch.isEmpty()) {
+                    inFlight.release();
+                    continue;
+                }
+                dispatch(new ArrayList<>(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(batch, new IllegalStateException("Embedding batcher interrupted"));
+                break;
+            } catch (Exception e) {
+                logger.error("Embedding batch failed before dispatch: {}", e.getMessage(), e);
+                fail(batch, e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Pending> batch) {
+        Map<String, List<CompletableFuture<float[]>>> byText = new LinkedHashMap<>();
+        for (Pending p : batch) {
+            byText.computeIfAbsent(p.text, k -> new ArrayList<>()).add(p.future);
+        }
+        List<String> inputs = new ArrayList<>(byText.keySet());
+        Map<String, Object> body = Map.of("model", embeddingsModel, "input", inputs);
+
+        requests.increment();
+        batchSizes.record(inputs.size());
+        try {
+            // pooled, non-blocking call with jittered retries on 429 / 5xx (OpenAiClient)
+            openAiClient.embeddings(body)
+                    .defaultIfEmpty("")
+                    // decoding ~batch x 3072 floats is CPU work; keep it off the Netty event loop
+                    .publishOn(Schedulers.parallel())
+                    .doFinally(signal -> inFlight.release())
+                    .subscribe(resp -> route(inputs, byText, resp),
+                               err -> {
+                                   logger.warn("Embeddings batch of {} failed: {}", inputs.size(), err.getMessage());
+                                   byText.values().forEach(fs -> fs.forEach(f -> f.completeExceptionally(err)));
+                               });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void route(List<String> inputs, Map<String, List<CompletableFuture<float[]>>> byText, String resp) {
+        float[][] vectors = new float[inputs.size()][];
+        try {
+            JsonNode data = resp.isBlank() ? null : objectMapper.readTree(resp).get("data");
+            if (data != null && data.isArray()) {
+                for (int pos = 0; pos < data.size(); pos++) {
+                    JsonNode item = data.get(pos);
+                    int index = item.has("index") ? item.get("index").asInt() : pos;
+                    JsonNode vec = item.get("embedding");
+                    if (index < 0 || index >= vectors.length || vec == null || !vec.isArray()) continue;
+                    float[] arr = new float[vec.size()];
+                    for (int i = 0; i < vec.size(); i++) arr[i] = (float) vec.get(i).asDouble();
+                    vectors[index] = arr;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not decode embeddings batch response: {}", e.getMessage());
+        }
+
+        for (int i = 0; i < inputs.size(); i++) {
+            for (CompletableFuture<float[]> f : byText.get(inputs.get(i))) {
+                if (vectors[i] != null) f.complete(vectors[i]);
+                else f.completeExceptionally(new IllegalStateException("No embedding returned for input " + i));
+            }
+        }
+    }
+
+    private static void fail(List<Pending> batch, Exception cause) {
+        for (Pending p : batch) p.future.completeExceptionally(cause);
+    }
+
+    private static final class Pending {
+        final String text;
+        final CompletableFuture<float[]> future;
+
+        Pending(String text, CompletableFuture<float[]> future) {
+            this.text = text;
+            this.future = future;
+        }
+    }
+}
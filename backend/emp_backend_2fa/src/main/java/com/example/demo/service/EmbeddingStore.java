@@ -0,0 +1,153 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.ContentHash;
+import com.example.demo.cache.LruCache;
+import com.example.demo.model.EmbeddingEntry;
+import com.example.demo.repository.EmbeddingEntryRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Content-addressed embedding vectors: in-memory LRU of float[] in front of the {@code embedding_store}
+ * table (float32 BLOBs). A text is only ever sent to /embeddings once per model.
+ *
+ * Metrics: {@code embedding.store} counter tagged {@code tier=memory|db} and {@code result=hit|miss}.
+ */
+@Service
+public class EmbeddingStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingStore.class);
+
+    private final EmbeddingEntryRepository repository;
+    private final LruCache<String, float[]> memory;
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter dbHits;
+    private final Counter dbMisses;
+
+    public EmbeddingStore(EmbeddingEntryRepository repository,
+                          MeterRegistry meterRegistry,
+                          @Value("${ai.embeddings.cache.max-entries:2000}") int maxEntries) {
+        this.repository = repository;
+        this.memory = new LruCache<>(maxEntries);
+        this.memoryHits = counter(meterRegistry, "memory", "hit");
+        this.memoryMisses = counter(meterRegistry, "memory", "miss");
+        this.dbHits = counter(meterRegistry, "db", "hit");
+        this.dbMisses = counter(meterRegistry, "db", "miss");
+        meterRegistry.gauge("embedding.store.size", memory, LruCache::size);
+    }
+
+    public String key(String model, String text) {
+        return ContentHash.sha256Hex(model, text);
+    }
+
+    /**
+     * Cached vector for the text, or null if this model has never embedded it.
+     * Callers must treat the returned array as read-only; it is shared.
+     */
+    public float[] get(String model, String text) {
+        String key = key(model, text);
+        float[] vec = memory.get(key);
+        if (vec != null) {
+            memoryHits.increment();
+            return vec;
+        }
+        memoryMisses.increment();
+
+        try {
+            Optional<EmbeddingEntry> entry = repository.findById(key);
+            if (entry.isPresent()) {
+                dbHits.increment();
+                vec = decode(entry.get().getVector());
+                memory.put(key, vec);
+                return vec;
+            }
+        } catch (Exception e) {
+            logger.warn("embedding store lookup failed for key={}: {}", key, e.getMessage());
+        }
+        dbMisses.increment();
+        return null;
+    }
+
+    /**
+     * Bulk lookup: memory first, then a single findAllById for the rest. Texts never embedded are absent from the result.
+     */
+    public Map<String, float[]> getAll(String model, Collection<String> texts) {
+        Map<String, float[]> found = new HashMap<>();
+        Map<String, String> missingByKey = new HashMap<>();
+        for (String text : texts) {
+            if (text == null || found.containsKey(text)) continue;
+            String key = key(model, text);
+            float[] vec = memory.get(key);
+            if (vec != null) {
+                memoryHits.increment();
+                found.put(text, vec);
+            } else {
+                memoryMisses.increment();
+                missingByKey.put(key, text);
+            }
+        }
+        if (missingByKey.isEmpty()) return found;
+
+        int loaded = 0;
+        try {
+            for (EmbeddingEntry entry : repository.findAllById(missingByKey.keySet())) {
+                float[] vec = decode(entry.getVector());
+                memory.put(entry.getCacheKey(), vec);
+                found.put(missingByKey.get(entry.getCacheKey()), vec);
+                loaded++;
+            }
+        } catch (Exception e) {
+            logger.warn("embedding store bulk lookup failed: {}", e.getMessage());
+        }
+        dbHits.increment(loaded);
+        dbMisses.increment(missingByKey.size() - loaded);
+        return found;
+    }
+
+    public void put(String model, String text, float[] vector) {
+        if (vector == null || vector.length == 0) return;
+        String key = key(model, text);
+        memory.put(key, vector);
+        try {
+            repository.save(new EmbeddingEntry(key, model, vector.length, encode(vector)));
+        } catch (Exception e) {
+            // a concurrent caller embedding the same text most likely won the insert
+            logger.debug("embedding store write skipped for key={}: {}", key, e.getMessage());
+        }
+    }
+
+    // float32 little-endian, 4 bytes per dimension
+    public static byte[] encode(float[] vector) {
+        ByteBuffer buf = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buf.asFloatBuffer().put(vector);
+        return buf.array();
+    }
+
+    public static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("embedding.store")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+}
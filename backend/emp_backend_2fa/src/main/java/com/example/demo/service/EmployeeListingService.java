@@ -0,0 +1,150 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.IndexNotReadyException;
+import com.example.demo.index.SkillBitmapIndex;
+import com.example.demo.model.EmployeeSummary;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.EmployeeSortField;
+import com.example.demo.repository.EmployeeSummaryQuery;
+
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paged employee listing over the slim {@link EmployeeSummary} projection.
+ *
+ * Deep pages use keyset pagination: the response carries an opaque {@code nextCursor} (sort key, direction,
+ * last sort value and last id, base64url) and the next page continues strictly after that row, so cost does
+ * not grow with depth and rows inserted meanwhile do not shift the window. Offset paging ({@code page}) is
+ * kept for jump-to-page UIs and is the only mode that computes {@code total}.
+ *
+ * Boolean skill filters (all / any / none of) are answered by {@link SkillBitmapIndex} first; the matching
+ * ids then restrict the SQL page like any other filter.
+ */
+@Service
+public class EmployeeListingService {
+
+    private static final String SEP = "\n";
+
+    private final EmployeeRepository employeeRepository;
+    private final SkillBitmapIndex skillBitmapIndex;
+
+    @Value("${app.employees.page.max-size:200}")
+    private int maxPageSize;
+    @Value("${app.skills.filter.max-matches:10000}")
+    private int maxSkillMatches;
+
+    public EmployeeListingService(EmployeeRepository employeeRepository, SkillBitmapIndex skillBitmapIndex) {
+        this.employeeRepository = employeeRepository;
+        this.skillBitmapIndex = skillBitmapIndex;
+    }
+
+    public List<EmployeeSummary> listAll() {
+        EmployeeSummaryQuery query = new EmployeeSummaryQuery();
+        query.setLimit(0);
+        return employeeRepository.findSummaries(query);
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown sort field, a malformed / mismatched cursor or a skill
+     *                                  filter matching more than {@code app.skills.filter.max-matches} employees
+     * @throws IndexNotReadyException   for a skill filter while the skill index is still being built
+     */
+    public Map<String, Object> page(String q, String department, String designation, String status,
+                                    List<String> skills, List<String> anySkills, List<String> notSkills,
+                                    String sort, String dir, String cursor, Integer page, int size) {
+        EmployeeSummaryQuery query = new EmployeeSummaryQuery();
+        query.setQ(q);
+        query.setDepartment(department);
+        query.setDesignation(designation);
+        query.setResumeStatus(status);
+        Long skillMatches = applySkillFilter(query, skills, anySkills, notSkills);
+        query.setSort(EmployeeSortField.fromParam(sort));
+        query.setDescending("desc".equalsIgnoreCase(dir));
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        // one extra row tells us whether there is a next page without a count query
+        query.setLimit(limit + 1);
+
+        if (cursor != null && !cursor.isBlank()) {
+            applyCursor(query, cursor);
+        } else if (page != null && page > 0) {
+            query.setOffset(page * limit);
+        }
+
+        List<EmployeeSummary> rows = employeeRepository.findSummaries(query);
+        boolean hasMore = rows.size() > limit;
+        List<EmployeeSummary> items = hasMore ? rows.subList(0, limit) : rows;
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("items", items);
+        res.put("size", items.size());
+        res.put("sort", query.getSort().getAttribute());
+        res.put("dir", query.isDescending() ? "desc" : "asc");
+        res.put("hasMore", hasMore);
+        res.put("nextCursor", hasMore ? encodeCursor(query, items.get(items.size() - 1)) : null);
+        if (skillMatches != null) {
+            res.put("skillMatches", skillMatches);
+        }
+        if (!query.isKeyset()) {
+            res.put("page", page != null ? Math.max(0, page) : 0);
+            res.put("total", employeeRepository.countSummaries(query));
+        }
+        return res;
+    }
+
+    // null when no skill filter was given, else the number of employees the bitmap query matched
+    private Long applySkillFilter(EmployeeSummaryQuery query, List<String> skills, List<String> anySkills,
+                                  List<String> notSkills) {
+        if (isEmpty(skills) && isEmpty(anySkills) && isEmpty(notSkills)) return null;
+        if (!skillBitmapIndex.isReady()) {
+            throw new IndexNotReadyException("Skill index is still loading, retry shortly");
+        }
+        Roaring64NavigableMap matched = skillBitmapIndex.match(skills, anySkills, notSkills);
+        long count = matched.getLongCardinality();
+        if (count > maxSkillMatches) {
+            throw new IllegalArgumentException("Skill filter matches " + count + " employees (max " + maxSkillMatches
+                    + "); add skills or other filters");
+        }
+        List<Long> ids = new ArrayList<>((int) count);
+        matched.forEach(ids::add);
+        query.setIds(ids);
+        return count;
+    }
+
+    private static boolean isEmpty(List<String> values) {
+        return values == null || values.stream().allMatch(v -> v == null || v.isBlank());
+    }
+
+    static String encodeCursor(EmployeeSummaryQuery query, EmployeeSummary last) {
+        String raw = query.getSort().name() + SEP + (query.isDescending() ? "d" : "a") + SEP + last.getId()
+                + SEP + query.getSort().valueOf(last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void applyCursor(EmployeeSummaryQuery query, String cursor) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEP, 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (parts.length != 4) throw new IllegalArgumentException("Malformed cursor");
+        if (!parts[0].equals(query.getSort().name()) || !parts[1].equals(query.isDescending() ? "d" : "a")) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        try {
+            query.setAfterId(Long.valueOf(parts[2]));
+            query.setAfterValue(query.getSort().parse(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+    }
+}
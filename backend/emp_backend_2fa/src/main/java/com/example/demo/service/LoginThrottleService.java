@@ -0,0 +1,238 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.TooManyRequestsException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process throttling for the unauthenticated credential endpoints (login, forgot-password, 2FA verify).
+ *
+ * Every attempt takes a token from two buckets, one keyed by client IP and one by account name; an empty
+ * bucket answers 429 with Retry-After before any BCrypt / TOTP work is done. Failed attempts also count
+ * towards a progressive lockout (base * 2^n, capped) per account and per IP; a success clears the account's
+ * failures. Bucket state is only touched inside {@link ConcurrentHashMap#compute}, i.e. under the map's
+ * per-bin lock, so unrelated keys never contend.
+ */
+@Service
+public class LoginThrottleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Counter throttled;
+
+    @Value("${security.throttle.ip.capacity:20}")
+    private int ipCapacity;
+    @Value("${security.throttle.ip.refill-per-minute:20}")
+    private int ipRefillPerMinute;
+    @Value("${security.throttle.ip.lockout-threshold:50}")
+    private int ipLockoutThreshold;
+    @Value("${security.throttle.account.capacity:5}")
+    private int accountCapacity;
+    @Value("${security.throttle.account.refill-per-minute:5}")
+    private int accountRefillPerMinute;
+    @Value("${security.throttle.account.lockout-threshold:5}")
+    private int accountLockoutThreshold;
+    @Value("${security.throttle.lockout.base-seconds:30}")
+    private long lockoutBaseSeconds;
+    @Value("${security.throttle.lockout.max-seconds:900}")
+    private long lockoutMaxSeconds;
+    // only enable behind a proxy that overwrites X-Forwarded-For, otherwise clients pick their own key
+    @Value("${security.throttle.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private Limit ipLimit;
+    private Limit accountLimit;
+
+    public LoginThrottleService(MeterRegistry meterRegistry) {
+        this.throttled = Counter.builder("login.throttled").register(meterRegistry);
+        meterRegistry.gauge("login.throttle.keys", buckets, ConcurrentHashMap::size);
+    }
+
+    @PostConstruct
+    public void init() {
+        ipLimit = new Limit(ipCapacity, ipRefillPerMinute, ipLockoutThreshold);
+        accountLimit = new Limit(accountCapacity, accountRefillPerMinute, accountLockoutThreshold);
+    }
+
+    /**
+     * Take one attempt for this client and account (account may be null when not known yet).
+     *
+     * @throws TooManyRequestsException when either bucket is empty or locked out
+     */
+    public void checkAllowed(HttpServletRequest request, String account) {
+        long waitSeconds = acquire(ipKey(request), ipLimit);
+        if (waitSeconds == 0 && account != null && !account.isBlank()) {
+            waitSeconds = acquire(accountKey(account), accountLimit);
+        }
+        if (waitSeconds > 0) {
+            throttled.increment();
+            throw new TooManyRequestsException("Too many attempts, retry in " + waitSeconds + "s", waitSeconds);
+        }
+    }
+
+    /**
+     * Account-only check, for endpoints that learn the account after the per-IP check already ran.
+     */
+    public void checkAccountAllowed(String account) {
+        if (account == null || account.isBlank()) return;
+        long waitSeconds = acquire(accountKey(account), accountLimit);
+        if (waitSeconds > 0) {
+            throttled.increment();
+            throw new TooManyRequestsException("Too many attempts, retry in " + waitSeconds + "s", waitSeconds);
+        }
+    }
+
+    public void recordFailure(HttpServletRequest request, String account) {
+        fail(ipKey(request), ipLimit);
+        if (account != null && !account.isBlank()) {
+            long lockedFor = fail(accountKey(account), accountLimit);
+            if (lockedFor > 0) {
+                logger.warn("Account '{}' locked for {}s after repeated failed attempts", account, lockedFor);
+            }
+        }
+    }
+
+    public void recordSuccess(String account) {
+        if (account == null || account.isBlank()) return;
+        buckets.computeIfPresent(accountKey(account), (k, b) -> {
+            b.failures = 0;
+            b.lockedUntilMillis = 0;
+            return b;
+        });
+    }
+
+    public String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String xff = request.getHeader("X-Forwarded-For");
+            if (xff != null && !xff.isBlank()) {
+                int comma = xff.indexOf(',');
+                return (comma >= 0 ? xff.substring(0, comma) : xff).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // drop buckets that are full again, not locked and without recent failures, so the map only holds active keys
+    @Scheduled(fixedDelayString = "${security.throttle.sweep-interval-ms:60000}")
+    public void sweep() {
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        long failureMemoryMillis = TimeUnit.SECONDS.toMillis(lockoutMaxSeconds);
+        // decide under the key's lock so a concurrent fail() that just locked the bucket is never dropped
+        for (String key : buckets.keySet()) {
+            buckets.computeIfPresent(key, (k, b) -> b.idle(nowNanos, nowMillis, failureMemoryMillis) ? null : b);
+        }
+    }
+
+    private String ipKey(HttpServletRequest request) {
+        return "ip:" + clientIp(request);
+    }
+
+    private static String accountKey(String account) {
+        return "acct:" + account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private long acquire(String key, Limit limit) {
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        long[] wait = new long[1];
+        buckets.compute(key, (k, b) -> {
+            if (b == null) b = new Bucket(limit, nowNanos);
+            wait[0] = b.tryAcquire(nowNanos, nowMillis);
+            return b;
+        });
+        return wait[0];
+    }
+
+    private long fail(String key, Limit limit) {
+        long nowNanos = System.nanoTime();
+        long nowMillis = System.currentTimeMillis();
+        long[] lockedFor = new long[1];
+        buckets.compute(key, (k, b) -> {
+            if (b == null) b = new Bucket(limit, nowNanos);
+            b.failures++;
+            b.lastFailureMillis = nowMillis;
+            if (b.failures >= limit.lockoutThreshold) {
+                int exponent = Math.min(20, b.failures - limit.lockoutThreshold);
+                long seconds = Math.min(lockoutMaxSeconds, lockoutBaseSeconds << exponent);
+                b.lockedUntilMillis = nowMillis + TimeUnit.SECONDS.toMillis(seconds);
+                lockedFor[0] = seconds;
+            }
+            return b;
+        });
+        return lockedFor[0];
+    }
+
+    private static final class Limit {
+        final double capacity;
+        final double tokensPerNano;
+        final int lockoutThreshold;
+
+        Limit(int capacity, int refillPerMinute, int lockoutThreshold) {
+            this.capacity = Math.max(1, capacity);
+            this.tokensPerNano = Math.max(1, refillPerMinute) / (double) TimeUnit.MINUTES.toNanos(1);
+            this.lockoutThreshold = Math.max(1, lockoutThreshold);
+        }
+    }
+
+    // mutated only inside ConcurrentHashMap.compute for its key
+    private static final class Bucket {
+        final Limit limit;
+        double tokens;
+        long lastRefillNanos;
+        int failures;
+        long lockedUntilMillis;
+        long lastFailureMillis;
+
+        Bucket(Limit limit, long nowNanos) {
+            this.limit = limit;
+            this.tokens = limit.capacity;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        // 0 when a token was taken, else seconds until the next attempt may succeed
+        long tryAcquire(long nowNanos, long nowMillis) {
+            if (lockedUntilMillis > nowMillis) {
+                return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(lockedUntilMillis - nowMillis + 999));
+            }
+            refill(nowNanos);
+            if (tokens >= 1.0) {
+                tokens -= 1.0;
+                return 0;
+            }
+            double nanosToNext = (1.0 - tokens) / limit.tokensPerNano;
+            return Math.max(1, (long) Math.ceil(nanosToNext / TimeUnit.SECONDS.toNanos(1)));
+        }
+
+        void refill(long nowNanos) {
+            long elapsed = nowNanos - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(limit.capacity, tokens + elapsed * limit.tokensPerNano);
+                lastRefillNanos = nowNanos;
+            }
+        }
+
+        boolean idle(long nowNanos, long nowMillis, long failureMemoryMillis) {
+            if (lockedUntilMillis > nowMillis) return false;
+            // failures are remembered for a while after the last one, so slow guessing still escalates
+            if (failures > 0 && nowMillis - lastFailureMillis < failureMemoryMillis) return false;
+            double projected = tokens + (nowNanos - lastRefillNanos) * limit.tokensPerNano;
+            return projected >= limit.capacity;
+        }
+    }
+}
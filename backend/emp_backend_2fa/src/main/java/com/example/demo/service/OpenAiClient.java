@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking access to the OpenAI endpoints the app uses. Nothing here blocks a thread: callers get a
+ * {@link Mono} that completes on the Netty event loop, so an in-flight LLM call only costs a pooled
+ * connection (see {@code openai.http.*} in OpenAiConfig).
+ *
+ * Each attempt has its own timeout; 429, 5xx, connection errors and timeouts are retried with exponential
+ * backoff plus jitter, so a burst of throttled callers does not retry in lockstep.
+ */
+@Service
+public class OpenAiClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAiClient.class);
+
+    private final WebClient webClient;
+    private final Counter chatRetries;
+    private final Counter embeddingRetries;
+
+    @Value("${openai.api.key:}")
+    private String openAiKey;
+
+    @Value("${openai.retry.max-retries:3}")
+    private int maxRetries;
+    @Value("${openai.retry.min-backoff-ms:500}")
+    private long minBackoffMs;
+    @Value("${openai.retry.max-backoff-ms:8000}")
+    private long maxBackoffMs;
+    @Value("${openai.retry.jitter:0.5}")
+    private double jitter;
+
+    @Value("${openai.timeout.chat-seconds:40}")
+    private long chatTimeoutSeconds;
+    @Value("${ai.embeddings.batch.timeout-seconds:20}")
+    private long embeddingsTimeoutSeconds;
+
+    public OpenAiClient(@Qualifier("openAiWebClient") WebClient openAiWebClient, MeterRegistry meterRegistry) {
+        this.webClient = openAiWebClient;
+        this.chatRetries = Counter.builder("openai.retries").tag("op", "chat").register(meterRegistry);
+        this.embeddingRetries = Counter.builder("openai.retries").tag("op", "embeddings").register(meterRegistry);
+    }
+
+    /**
+     * POST /chat/completions; emits the raw response body.
+     */
+    public Mono<String> chatCompletion(Map<String, Object> body) {
+        return post("/chat/completions", body, Duration.ofSeconds(chatTimeoutSeconds), chatRetries);
+    }
+
+    /**
+     * POST /embeddings; emits the raw response body.
+     */
+    public Mono<String> embeddings(Map<String, Object> body) {
+        return post("/embeddings", body, Duration.ofSeconds(embeddingsTimeoutSeconds), embeddingRetries);
+    }
+
+    /**
+     * Upper bound for one embeddings call including every retry, for callers that wait on the result.
+     */
+    public Duration embeddingsDeadline() {
+        return Duration.ofSeconds(embeddingsTimeoutSeconds * (maxRetries + 1L))
+                .plusMillis(maxBackoffMs * maxRetries);
+    }
+
+    private Mono<String> post(String uri, Map<String, Object> body, Duration timeout, Counter retries) {
+        String token = apiKey();
+        if (token == null) {
+            // fail fast with a clear message instead of sending an empty header
+            return Mono.error(new IllegalStateException("OpenAI API key missing. Set OPENAI_API_KEY env var or openai.api.key property."));
+        }
+
+        return Mono.defer(() -> webClient.post()
+                        .uri(uri)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .timeout(timeout))
+                .retryWhen(Retry.backoff(maxRetries, Duration.ofMillis(minBackoffMs))
+                        .maxBackoff(Duration.ofMillis(maxBackoffMs))
+                        .jitter(jitter)
+                        .filter(OpenAiClient::isRetryable)
+                        .doBeforeRetry(signal -> {
+                            retries.increment();
+                            logger.warn("OpenAI {} attempt {} failed ({}), retrying", uri, signal.totalRetries() + 1,
+                                    describe(signal.failure()));
+                        })
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnError(WebClientResponseException.class, e ->
+                        logger.error("OpenAI responded: status={} body={}", e.getStatusCode().value(), e.getResponseBodyAsString()));
+    }
+
+    // Prefer injected property, fallback to OS env (helps if property binding missed)
+    private String apiKey() {
+        String token = (openAiKey == null || openAiKey.isBlank()) ? System.getenv("OPENAI_API_KEY") : openAiKey;
+        if (token != null) token = token.trim();
+        return (token == null || token.isBlank()) ? null : token;
+    }
+
+    private static boolean isRetryable(Throwable t) {
+        if (t instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) t).getStatusCode().value();
+            return status == 429 || status >= 500;
+        }
+        return t instanceof WebClientRequestException || t instanceof TimeoutException;
+    }
+
+    private static String describe(Throwable t) {
+        if (t instanceof WebClientResponseException) {
+            return "HTTP " + ((WebClientResponseException) t).getStatusCode().value();
+        }
+        return t.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.LruCache;
+import com.example.demo.event.EmployeeDeletedEvent;
+import com.example.demo.model.Employee;
+import com.example.demo.model.ParsedResume;
+import com.example.demo.skills.SkillTaxonomy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * {@link ParsedResume} per employee, keyed by id and validated against {@code resumeParsedAt}: a re-upload
+ * bumps the timestamp, so a stale entry is simply re-parsed on the next lookup. Bulk ranking and the
+ * candidate index then digest each resume JSON once instead of once per job scored. The skills are
+ * resolved to taxonomy ids at the same time, so scoring only intersects bitsets.
+ */
+@Service
+public class ParsedResumeCache {
+
+    private final LruCache<Long, Entry> cache;
+    private final SkillTaxonomy skillTaxonomy;
+
+    public ParsedResumeCache(@Value("${ai.parsed-resume-cache.max-entries:5000}") int maxEntries,
+                             SkillTaxonomy skillTaxonomy) {
+        this.cache = new LruCache<>(maxEntries);
+        this.skillTaxonomy = skillTaxonomy;
+    }
+
+    private static final class Entry {
+        final LocalDateTime parsedAt;
+        final ParsedResume resume;
+
+        Entry(LocalDateTime parsedAt, ParsedResume resume) {
+            this.parsedAt = parsedAt;
+            this.resume = resume;
+        }
+    }
+
+    public ParsedResume forEmployee(Employee employee) {
+        if (employee == null || employee.getResumeParsedText() == null) {
+            return ParsedResume.EMPTY;
+        }
+        long id = employee.getId();
+        LocalDateTime parsedAt = employee.getResumeParsedAt();
+        if (parsedAt == null) {
+            // no version to validate against, so never cache it
+            return parse(employee.getResumeParsedText());
+        }
+
+        Entry entry = cache.get(id);
+        if (entry != null && Objects.equals(entry.parsedAt, parsedAt)) {
+            return entry.resume;
+        }
+        ParsedResume resume = parse(employee.getResumeParsedText());
+        cache.put(id, new Entry(parsedAt, resume));
+        return resume;
+    }
+
+    /**
+     * Uncached parse of resume JSON (e.g. fresh model output), skills resolved against the taxonomy.
+     */
+    public ParsedResume parse(String json) {
+        ParsedResume resume = ParsedResume.parse(json);
+        return resume.getSkills().isEmpty() ? resume : resume.withSkillSet(skillTaxonomy.skillSet(resume.getSkills()));
+    }
+
+    @EventListener
+    public void onEmployeeDeleted(EmployeeDeletedEvent event) {
+        cache.remove(event.getEmployeeId());
+    }
+}
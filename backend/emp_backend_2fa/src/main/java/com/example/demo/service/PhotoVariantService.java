@@ -0,0 +1,186 @@
+package com.example.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Downscaled profile photo variants (thumb, medium), generated lazily on first request and cached on disk
+ * next to the original as {@code <original>.<size>.jpg|png}. A variant older than its original (photo
+ * re-uploaded) is regenerated.
+ *
+ * Decoding uses source subsampling, so a 10 MB camera image is never fully rasterised just to produce a
+ * 128px thumbnail; the remaining reduction is done in bilinear halving steps for a clean result.
+ */
+@Service
+public class PhotoVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoVariantService.class);
+
+    public static final String ORIGINAL = "original";
+
+    // one generation per variant file at a time; concurrent requests wait for it instead of redoing the work
+    private final ConcurrentHashMap<Path, Object> locks = new ConcurrentHashMap<>();
+
+    @Value("${app.photos.thumb-size:128}")
+    private int thumbSize;
+    @Value("${app.photos.medium-size:512}")
+    private int mediumSize;
+
+    public static final class Variant {
+        private final Path path;
+        private final String contentType;
+
+        Variant(Path path, String contentType) {
+            this.path = path;
+            this.contentType = contentType;
+        }
+
+        public Path getPath() { return path; }
+        public String getContentType() { return contentType; }
+    }
+
+    /**
+     * The file to serve for the requested size. Returns null for "original", for unknown sizes, and when
+     * the image cannot be decoded (caller serves the original then).
+     */
+    public Variant variant(Path original, String size) {
+        int maxEdge = maxEdge(size);
+        if (maxEdge <= 0) return null;
+
+        String base = original.getFileName().toString() + "." + size.toLowerCase(Locale.ROOT);
+        Path jpg = original.resolveSibling(base + ".jpg");
+        Path png = original.resolveSibling(base + ".png");
+        try {
+            long originalModified = Files.getLastModifiedTime(original).toMillis();
+            Variant fresh = freshVariant(jpg, png, originalModified);
+            if (fresh != null) return fresh;
+
+            Object lock = locks.computeIfAbsent(jpg, k -> new Object());
+            try {
+                synchronized (lock) {
+                    fresh = freshVariant(jpg, png, originalModified);
+                    if (fresh != null) return fresh;
+                    return generate(original, jpg, png, maxEdge);
+                }
+            } finally {
+                locks.remove(jpg, lock);
+            }
+        } catch (Exception e) {
+            logger.warn("Photo variant '{}' for {} failed, serving original: {}", size, original.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    private int maxEdge(String size) {
+        if (size == null) return 0;
+        switch (size.toLowerCase(Locale.ROOT)) {
+            case "thumb":
+                return thumbSize;
+            case "medium":
+                return mediumSize;
+            default:
+                return 0;
+        }
+    }
+
+    private static Variant freshVariant(Path jpg, Path png, long originalModified) throws IOException {
+        if (Files.exists(jpg) && Files.getLastModifiedTime(jpg).toMillis() >= originalModified) {
+            return new Variant(jpg, "image/jpeg");
+        }
+        if (Files.exists(png) && Files.getLastModifiedTime(png).toMillis() >= originalModified) {
+            return new Variant(png, "image/png");
+        }
+        return null;
+    }
+
+    private Variant generate(Path original, Path jpg, Path png, int maxEdge) throws IOException {
+        long started = System.currentTimeMillis();
+        BufferedImage source = read(original, maxEdge);
+        if (source == null) {
+            throw new IOException("unsupported image format");
+        }
+
+        boolean alpha = source.getColorModel().hasAlpha();
+        BufferedImage scaled = scale(source, maxEdge, alpha);
+        Path target = alpha ? png : jpg;
+        Path tmp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            ImageIO.write(scaled, alpha ? "png" : "jpg", tmp.toFile());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        // a stale variant in the other format would otherwise shadow the new one
+        Files.deleteIfExists(alpha ? jpg : png);
+
+        logger.info("🖼️ Generated {}px photo variant {} ({}x{}) in {} ms", maxEdge, target.getFileName(),
+                scaled.getWidth(), scaled.getHeight(), System.currentTimeMillis() - started);
+        return new Variant(target, alpha ? "image/png" : "image/jpeg");
+    }
+
+    // decode with the largest subsampling that still leaves at least 2x the target edge
+    private static BufferedImage read(Path file, int maxEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / (maxEdge * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int maxEdge, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(w, h));
+        int targetW = Math.max(1, (int) Math.round(w * ratio));
+        int targetH = Math.max(1, (int) Math.round(h * ratio));
+
+        BufferedImage current = source;
+        do {
+            // halve until within 2x of the target, then one final step (bilinear alone aliases on big reductions)
+            int nextW = Math.max(targetW, w / 2 >= targetW ? w / 2 : targetW);
+            int nextH = Math.max(targetH, h / 2 >= targetH ? h / 2 : targetH);
+            BufferedImage next = new BufferedImage(nextW, nextH, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, nextW, nextH, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+            w = nextW;
+            h = nextH;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+}
@@ -0,0 +1,463 @@
+package com.example.demo.service;
+
+import com.example.demo.config.WorkerThreads;
+import com.example.demo.event.ResumeUpdatedEvent;
+import com.example.demo.exception.TooManyRequestsException;
+import com.example.demo.model.Employee;
+import com.example.demo.model.Job;
+import com.example.demo.model.ParsedResume;
+import com.example.demo.repository.EmployeeRepository;
+import com.example.demo.repository.JobRepository;
+import com.example.demo.skills.SkillTaxonomy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resume ingestion: extract -> parse -> score -> persist.
+ *
+ * The same stages back both upload modes. {@link #ingestAsync} answers the classic synchronous upload
+ * without parking a thread on the OpenAI calls; {@link #submit} hands the job to a bounded pipeline where every stage
+ * has its own fixed-size worker pool, and reports progress through {@code Employee.resumeStatus}.
+ *
+ * Backpressure: at most {@code app.ingestion.max-in-flight} jobs are admitted, extra uploads are
+ * rejected with 429. Between stages a full queue blocks the upstream worker instead of dropping work,
+ * so a slow LLM stalls extraction rather than piling up parsed text in memory.
+ */
+@Service
+public class ResumeIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeIngestionService.class);
+
+    // Progress markers written to Employee.resumeStatus while an async ingestion is running
+    public static final String STATUS_QUEUED = "QUEUED";
+    public static final String STATUS_EXTRACTING = "EXTRACTING";
+    public static final String STATUS_PARSING = "PARSING";
+    public static final String STATUS_SCORING = "SCORING";
+    public static final String STATUS_PERSISTING = "PERSISTING";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final List<String> STAGES =
+            List.of(STATUS_QUEUED, STATUS_EXTRACTING, STATUS_PARSING, STATUS_SCORING, STATUS_PERSISTING);
+    private static final Set<String> TERMINAL = Set.of("UPLOADED", "SHORTLISTED", "REJECTED", STATUS_FAILED);
+
+    private final EmployeeRepository employeeRepository;
+    private final JobRepository jobRepository;
+    private final TikaExtractorService tikaExtractorService;
+    private final AIParsingService aiParsingService;
+    private final AIShortlistingService aiShortlistingService;
+    private final ParsedResumeCache parsedResumeCache;
+    private final SkillTaxonomy skillTaxonomy;
+    private final ApplicationEventPublisher eventPublisher;
+    private final WorkerThreads workerThreads;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${app.ingestion.max-in-flight:200}")
+    private int maxInFlight;
+    @Value("${app.ingestion.queue-capacity:50}")
+    private int queueCapacity;
+    @Value("${app.ingestion.extract.concurrency:2}")
+    private int extractConcurrency;
+    @Value("${app.ingestion.parse.concurrency:4}")
+    private int parseConcurrency;
+    @Value("${app.ingestion.score.concurrency:4}")
+    private int scoreConcurrency;
+    @Value("${app.ingestion.persist.concurrency:2}")
+    private int persistConcurrency;
+
+    private Semaphore admission;
+    private ThreadPoolExecutor extractStage;
+    private ThreadPoolExecutor parseStage;
+    private ThreadPoolExecutor scoreStage;
+    private ThreadPoolExecutor persistStage;
+
+    public ResumeIngestionService(EmployeeRepository employeeRepository,
+                                  JobRepository jobRepository,
+                                  TikaExtractorService tikaExtractorService,
+                                  AIParsingService aiParsingService,
+                                  AIShortlistingService aiShortlistingService,
+                                  ParsedResumeCache parsedResumeCache,
+                                  SkillTaxonomy skillTaxonomy,
+                                  ApplicationEventPublisher eventPublisher,
+                                  WorkerThreads workerThreads) {
+        this.employeeRepository = employeeRepository;
+        this.jobRepository = jobRepository;
+        this.tikaExtractorService = tikaExtractorService;
+        this.aiParsingService = aiParsingService;
+        this.aiShortlistingService = aiShortlistingService;
+        this.parsedResumeCache = parsedResumeCache;
+        this.skillTaxonomy = skillTaxonomy;
+        this.eventPublisher = eventPublisher;
+        this.workerThreads = workerThreads;
+    }
+
+    @PostConstruct
+    public void init() {
+        admission = new Semaphore(maxInFlight);
+        // the first queue can hold every admitted job, so the request thread never blocks on it
+        // Tika extraction is CPU-bound and stays on platform threads; the OpenAI / MySQL stages only wait on I/O
+        extractStage = newStage("extract", extractConcurrency, maxInFlight, WorkerThreads.platform("ingest-extract"));
+        parseStage = newStage("parse", parseConcurrency, queueCapacity, workerThreads.blocking("ingest-parse"));
+        scoreStage = newStage("score", scoreConcurrency, queueCapacity, workerThreads.blocking("ingest-score"));
+        persistStage = newStage("persist", persistConcurrency, queueCapacity, workerThreads.blocking("ingest-persist"));
+        logger.info("Resume ingestion pipeline ready: maxInFlight={}, extract={}, parse={}, score={}, persist={}",
+                maxInFlight, extractConcurrency, parseConcurrency, scoreConcurrency, persistConcurrency);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor stage : List.of(extractStage, parseStage, scoreStage, persistStage)) {
+            stage.shutdown();
+        }
+        try {
+            persistStage.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Synchronous mode without holding a thread across the OpenAI calls: extraction runs on the caller, the
+     * parse and the embeddings are awaited asynchronously, and the DB steps run on the given executor.
+     */
+    public CompletableFuture<Employee> ingestAsync(Employee employee, Path resumePath, String contentType, Long jobId,
+                                                   Executor dbExecutor) {
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), employee.getId(), resumePath, contentType, jobId, false);
+        extract(job);
+        return aiParsingService.parseResumeToJsonAsync(job.resumeText, job.resumePath.getFileName().toString())
+                .handle((json, err) -> {
+                    if (err != null) logger.error("AIParsingService failed: {}", err.getMessage());
+                    applyParsed(job, err == null ? json : null);
+                    return job;
+                })
+                .thenComposeAsync(j -> {
+                    loadJobRequirements(j);
+                    if (j.jobReqText.isBlank()) return CompletableFuture.<Map<String, Object>>completedFuture(null);
+                    return aiShortlistingService.computeScoreAsync(j.resume, j.jobReqText, null, null);
+                }, dbExecutor)
+                .handle((scoreMap, err) -> {
+                    if (err != null) {
+                        logger.warn("AIShortlistingService.computeScore failed, falling back to parsed/heuristic score: {}", err.getMessage());
+                    }
+                    applyScore(job, err == null ? scoreMap : null);
+                    return job;
+                })
+                .thenApplyAsync(this::persist, dbExecutor);
+    }
+
+    /**
+     * Async mode: record the upload, queue the job and return its ingestion id straight away.
+     *
+     * @throws TooManyRequestsException when the pipeline is already holding max-in-flight jobs
+     */
+    public String submit(Employee employee, Path resumePath, String contentType, Long jobId) {
+        if (!admission.tryAcquire()) {
+            throw new TooManyRequestsException("Resume ingestion pipeline is full, retry later", 5);
+        }
+        IngestionJob job = new IngestionJob(UUID.randomUUID().toString(), employee.getId(), resumePath, contentType, jobId, true);
+        try {
+            employee.setResumePath(resumePath.toString());
+            employee.setResumeContentType(contentType);
+            employee.setResumeIngestionId(job.ingestionId);
+            employee.setResumeStatus(STATUS_QUEUED);
+            employeeRepository.save(employee);
+
+            extractStage.execute(() -> runExtract(job));
+        } catch (RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+        logger.info("Queued resume ingestion {} for employee {} (inFlight={})",
+                job.ingestionId, job.employeeId, maxInFlight - admission.availablePermits());
+        return job.ingestionId;
+    }
+
+    /**
+     * Progress view for the status endpoint, derived from the employee row.
+     */
+    public Map<String, Object> describe(Employee employee) {
+        String status = employee.getResumeStatus();
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("ingestionId", employee.getResumeIngestionId());
+        res.put("employeeId", employee.getId());
+        res.put("status", status);
+        res.put("stages", STAGES);
+        res.put("stageIndex", STAGES.indexOf(status));
+        res.put("done", status == null || TERMINAL.contains(status));
+        res.put("failed", STATUS_FAILED.equals(status));
+        if (employee.getResumeScore() != null) res.put("resumeScore", employee.getResumeScore());
+        if (employee.getResumeParsedAt() != null) res.put("resumeParsedAt", employee.getResumeParsedAt());
+        return res;
+    }
+
+    // ---------------------------------------------------------------------
+    // Pipeline plumbing
+    // ---------------------------------------------------------------------
+
+    private void runExtract(IngestionJob job) {
+        if (runStep(job, STATUS_EXTRACTING, this::extract)) handOff(parseStage, () -> runParse(job), job);
+    }
+
+    private void runParse(IngestionJob job) {
+        if (runStep(job, STATUS_PARSING, this::parse)) handOff(scoreStage, () -> runScore(job), job);
+    }
+
+    private void runScore(IngestionJob job) {
+        if (runStep(job, STATUS_SCORING, this::score)) handOff(persistStage, () -> runPersist(job), job);
+    }
+
+    private void runPersist(IngestionJob job) {
+        if (runStep(job, STATUS_PERSISTING, this::persist)) complete(job);
+    }
+
+    private boolean runStep(IngestionJob job, String status, Stage stage) {
+        try {
+            markStatus(job, status);
+            stage.run(job);
+            return true;
+        } catch (Exception e) {
+            logger.error("Resume ingestion {} failed in stage {}: {}", job.ingestionId, status, e.getMessage(), e);
+            markStatus(job, STATUS_FAILED);
+            complete(job);
+            return false;
+        }
+    }
+
+    private void handOff(ThreadPoolExecutor next, Runnable task, IngestionJob job) {
+        try {
+            next.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.error("Resume ingestion {} could not be handed to the next stage: {}", job.ingestionId, e.getMessage());
+            markStatus(job, STATUS_FAILED);
+            complete(job);
+        }
+    }
+
+    private void complete(IngestionJob job) {
+        admission.release();
+    }
+
+    private void markStatus(IngestionJob job, String status) {
+        if (!job.trackProgress) return;
+        try {
+            if (employeeRepository.updateResumeStatus(job.employeeId, job.ingestionId, status) == 0) {
+                logger.debug("Ingestion {} superseded or employee {} gone; status {} not written",
+                        job.ingestionId, job.employeeId, status);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not record status {} for ingestion {}: {}", status, job.ingestionId, e.getMessage());
+        }
+    }
+
+    private ThreadPoolExecutor newStage(String name, int threads, int capacity, ThreadFactory threadFactory) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, capacity)), threadFactory, BLOCKING_HANDOFF);
+    }
+
+    // A full stage queue parks the submitting worker until there is room (backpressure towards upstream stages)
+    private static final RejectedExecutionHandler BLOCKING_HANDOFF = (r, executor) -> {
+        if (executor.isShutdown()) throw new RejectedExecutionException("Ingestion stage is shut down");
+        try {
+            executor.getQueue().put(r);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for stage capacity", e);
+        }
+    };
+
+    // ---------------------------------------------------------------------
+    // Stages
+    // ---------------------------------------------------------------------
+
+    private void extract(IngestionJob job) {
+        try {
+            job.resumeText = tikaExtractorService.extractText(job.resumePath.toFile());
+        } catch (Exception e) {
+            logger.warn("Tika failed to extract text; using fallback empty string. error={}", e.getMessage());
+            job.resumeText = "";
+        }
+    }
+
+    private void parse(IngestionJob job) {
+        String modelJson = null;
+        try {
+            modelJson = aiParsingService.parseResumeToJson(job.resumeText, job.resumePath.getFileName().toString());
+        } catch (Exception e) {
+            logger.error("AIParsingService failed: {}", e.getMessage(), e);
+        }
+        applyParsed(job, modelJson);
+    }
+
+    private void applyParsed(IngestionJob job, String modelJson) {
+        job.modelJson = modelJson;
+        if (modelJson != null) {
+            logger.debug("AIParsingService returned (len={}): {}", job.modelJson == null ? 0 : job.modelJson.length(),
+                    (job.modelJson == null ? "null" : (job.modelJson.length() > 500 ? job.modelJson.substring(0, 500) + "...(truncated)" : job.modelJson)));
+        }
+
+        // digest the model JSON once; scoring and persist read the typed fields from here on
+        job.resume = parsedResumeCache.parse(job.modelJson);
+        if (job.modelJson != null && !job.modelJson.isBlank() && !job.resume.isValid()) {
+            logger.warn("Model output is not a JSON object — scoring without parsed fields");
+        }
+    }
+
+    private void score(IngestionJob job) {
+        loadJobRequirements(job);
+
+        // If job context provided, AIShortlistingService computes the authoritative score
+        Map<String, Object> scoreMap = null;
+        if (!job.jobReqText.isBlank()) {
+            try {
+                scoreMap = aiShortlistingService.computeScore(job.resume, job.jobReqText, null, null);
+            } catch (Exception ex) {
+                logger.warn("AIShortlistingService.computeScore failed, falling back to parsed/heuristic score: {}", ex.getMessage());
+            }
+        }
+        applyScore(job, scoreMap);
+    }
+
+    private void loadJobRequirements(IngestionJob job) {
+        job.jobReqText = "";
+        if (job.jobId != null) {
+            job.jobReqText = jobRepository.findById(job.jobId)
+                    .map(Job::getDescription)
+                    .orElse("");
+        }
+    }
+
+    // scoreMap: AIShortlistingService result, or null when there was no job context or scoring failed
+    private void applyScore(IngestionJob job, Map<String, Object> scoreMap) {
+        // First attempt: if parsed contains a numeric 'score', prefer that (normalize if 0..1)
+        double finalScoreValue = 0.0;
+        Double reported = job.resume.getReportedScore();
+        if (reported != null) {
+            finalScoreValue = (reported <= 1.0) ? reported * 100.0 : reported;
+        }
+
+        if (scoreMap != null) {
+            Object fs = scoreMap.get("finalScore");
+            if (fs instanceof Number) {
+                finalScoreValue = ((Number) fs).doubleValue();
+            } else if (fs != null) {
+                try {
+                    finalScoreValue = Double.parseDouble(String.valueOf(fs));
+                } catch (Exception ex) {
+                    logger.warn("AIShortlistingService returned non-numeric finalScore: {}", fs);
+                }
+            }
+            logger.info("AI shortlisting returned: finalScore={}, details={}", finalScoreValue, scoreMap);
+        }
+
+        // ensure finalScoreValue is within 0..100
+        if (Double.isNaN(finalScoreValue) || finalScoreValue < 0.0) finalScoreValue = 0.0;
+        if (finalScoreValue > 100.0) finalScoreValue = 100.0;
+        job.finalScore = finalScoreValue;
+    }
+
+    private Employee persist(IngestionJob job) {
+        Employee employee = employeeRepository.findById(job.employeeId)
+                .orElseThrow(() -> new IllegalStateException("Employee " + job.employeeId + " no longer exists"));
+        if (job.trackProgress && !job.ingestionId.equals(employee.getResumeIngestionId())) {
+            logger.info("Ingestion {} superseded by {} for employee {}; dropping result",
+                    job.ingestionId, employee.getResumeIngestionId(), job.employeeId);
+            return employee;
+        }
+
+        // store full parsed JSON for auditing
+        String parsedJsonToStore;
+        try {
+            parsedJsonToStore = parsedJson(job);
+        } catch (Exception e) {
+            parsedJsonToStore = job.resumeText;
+        }
+
+        employee.setResumePath(job.resumePath.toString());
+        employee.setResumeContentType(job.contentType);
+        employee.setResumeParsedText(parsedJsonToStore);
+        // canonical names ("springboot", "SpringBoot 3" -> "Spring Boot"), so filters compare like with like
+        employee.setResumeSkills(skillTaxonomy.normalize(job.resume.getSkills()));
+        employee.setResumeScore(job.finalScore);
+        employee.setResumeParsedAt(LocalDateTime.now());
+        employee.setResumeIngestionId(job.ingestionId);
+
+        // if no job context provided, keep status 'UPLOADED'
+        if (job.jobReqText == null || job.jobReqText.isBlank()) {
+            employee.setResumeStatus("UPLOADED");
+        } else {
+            employee.setResumeStatus(job.finalScore >= 60.0 ? "SHORTLISTED" : "REJECTED");
+        }
+
+        Employee saved = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new ResumeUpdatedEvent(saved.getId()));
+        logger.info("✅ Resume ingested: {} , normalizedScore={}, ingestionId={}", job.resumePath, job.finalScore, job.ingestionId);
+        return saved;
+    }
+
+    // prefer the model output (full), else the raw extracted text wrapped as JSON
+    private String parsedJson(IngestionJob job) throws Exception {
+        return (job.modelJson != null && !job.modelJson.isBlank())
+                ? job.modelJson
+                : objectMapper.writeValueAsString(Collections.singletonMap("rawText", job.resumeText == null ? "" : job.resumeText));
+    }
+
+
+    @FunctionalInterface
+    private interface Stage {
+        void run(IngestionJob job) throws Exception;
+    }
+
+    /**
+     * Mutable state carried from stage to stage; each stage runs after the previous one completed
+     * (executor hand-off gives the happens-before edge), so no extra synchronization is needed.
+     */
+    static final class IngestionJob {
+        final String ingestionId;
+        final long employeeId;
+        final Path resumePath;
+        final String contentType;
+        final Long jobId;
+        final boolean trackProgress;
+
+        String resumeText = "";
+        String modelJson;
+        ParsedResume resume = ParsedResume.EMPTY;
+        String jobReqText = "";
+        double finalScore;
+
+        IngestionJob(String ingestionId, long employeeId, Path resumePath, String contentType, Long jobId,
+                     boolean trackProgress) {
+            this.ingestionId = ingestionId;
+            this.employeeId = employeeId;
+            this.resumePath = resumePath;
+            this.contentType = contentType;
+            this.jobId = jobId;
+            this.trackProgress = trackProgress;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.ContentHash;
+import com.example.demo.cache.LruCache;
+import com.example.demo.model.ResumeParseCacheEntry;
+import com.example.demo.repository.ResumeParseCacheRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Two-tier cache for LLM resume parses: in-process LRU in front of the {@code resume_parse_cache} table.
+ *
+ * Entries are content addressed (SHA-256 of parse model + prompt version + extracted text), so a
+ * re-uploaded PDF - same candidate, different job, or HR uploading it twice - skips the chat
+ * completion entirely. Bumping the model or the prompt version naturally misses. Callers must not cache
+ * parses of an empty extraction: every such resume would share one key.
+ *
+ * Metrics: {@code resume.parse.cache} counter tagged {@code tier=memory|db} and {@code result=hit|miss}.
+ */
+@Service
+public class ResumeParseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumeParseCache.class);
+
+    private final ResumeParseCacheRepository repository;
+    private final LruCache<String, String> memory;
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter dbHits;
+    private final Counter dbMisses;
+
+    public ResumeParseCache(ResumeParseCacheRepository repository,
+                            MeterRegistry meterRegistry,
+                            @Value("${ai.parse.cache.max-entries:500}") int maxEntries) {
+        this.repository = repository;
+        this.memory = new LruCache<>(maxEntries);
+        this.memoryHits = counter(meterRegistry, "memory", "hit");
+        this.memoryMisses = counter(meterRegistry, "memory", "miss");
+        this.dbHits = counter(meterRegistry, "db", "hit");
+        this.dbMisses = counter(meterRegistry, "db", "miss");
+        meterRegistry.gauge("resume.parse.cache.size", memory, LruCache::size);
+    }
+
+    public String key(String resumeText, String parseModel, String promptVersion) {
+        return ContentHash.sha256Hex(parseModel, promptVersion, resumeText == null ? "" : resumeText);
+    }
+
+    public Optional<String> get(String key) {
+        String json = memory.get(key);
+        if (json != null) {
+            memoryHits.increment();
+            return Optional.of(json);
+        }
+        memoryMisses.increment();
+
+        try {
+            Optional<ResumeParseCacheEntry> entry = repository.findById(key);
+            if (entry.isPresent()) {
+                dbHits.increment();
+                memory.put(key, entry.get().getParsedJson());
+                return Optional.of(entry.get().getParsedJson());
+            }
+        } catch (Exception e) {
+            // cache is best effort - a DB hiccup must not fail the upload
+            logger.warn("resume parse cache lookup failed for key={}: {}", key, e.getMessage());
+        }
+        dbMisses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, String parseModel, String promptVersion, String parsedJson) {
+        if (parsedJson == null || parsedJson.isBlank()) return;
+        memory.put(key, parsedJson);
+        try {
+            repository.save(new ResumeParseCacheEntry(key, parseModel, promptVersion, parsedJson));
+        } catch (Exception e) {
+            // most likely a concurrent upload of the same file won the insert
+            logger.debug("resume parse cache write skipped for key={}: {}", key, e.getMessage());
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("resume.parse.cache")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.service;
+
+import com.example.demo.adminModel.AdminModel;
+import com.example.demo.adminModel.RevokedToken;
+import com.example.demo.adminRepository.AdminRepository;
+import com.example.demo.adminRepository.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side JWT revocation, checked by the request filter without touching the database.
+ *
+ * Two mechanisms:
+ * - revoked token ids (jti -> expiry millis) for single-token logout; an entry is dropped once its token
+ *   would have expired anyway.
+ * - a per-user "tokens valid after" watermark (epoch seconds, compared with iat) that invalidates every
+ *   token issued before a password reset, 2FA enablement or logout-everywhere.
+ *
+ * Both live in ConcurrentHashMaps mirrored from MySQL ({@code revoked_tokens}, {@code admin.tokens_valid_after});
+ * local changes apply immediately, changes made on other nodes arrive with the periodic sync.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final AdminRepository adminRepository;
+
+    private final ConcurrentHashMap<String, Long> revokedJtis = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> validAfterByUser = new ConcurrentHashMap<>();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, AdminRepository adminRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.adminRepository = adminRepository;
+    }
+
+    /**
+     * Hot path (every authenticated request): two map lookups on values already held by the claims,
+     * no allocation. iat is read raw from the claims map to avoid materialising a Date.
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && revokedJtis.containsKey(jti)) {
+            return true;
+        }
+        String subject = claims.getSubject();
+        Long validAfter = subject != null ? validAfterByUser.get(subject) : null;
+        if (validAfter == null) {
+            return false;
+        }
+        Object iat = claims.get(Claims.ISSUED_AT);
+        // tokens without iat cannot prove they are newer than the watermark
+        return !(iat instanceof Number) || ((Number) iat).longValue() < validAfter;
+    }
+
+    /**
+     * Revoke one token (logout) until its own expiry.
+     */
+    public void revoke(Claims claims) {
+        String jti = claims.getId();
+        Date exp = claims.getExpiration();
+        if (jti == null || exp == null) {
+            // tokens minted before jti was added can only be revoked through the watermark
+            revokeAllFor(claims.getSubject());
+            return;
+        }
+        revokedJtis.put(jti, exp.getTime());
+        try {
+            revokedTokenRepository.save(new RevokedToken(jti, claims.getSubject(),
+                    LocalDateTime.ofInstant(exp.toInstant(), ZoneId.systemDefault())));
+        } catch (Exception e) {
+            logger.warn("Persisting revocation of jti={} failed (still revoked on this node): {}", jti, e.getMessage());
+        }
+    }
+
+    /**
+     * Invalidate every token the user holds right now. Returns the watermark (epoch seconds);
+     * tokens issued from this second on stay valid, so a fresh token can be handed out straight away.
+     */
+    public long revokeAllFor(String username) {
+        long watermark = Instant.now().getEpochSecond();
+        if (username == null) return watermark;
+        validAfterByUser.merge(username, watermark, Math::max);
+        adminRepository.findByAdminName(username).ifPresent(admin -> {
+            admin.setTokensValidAfter(watermark);
+            adminRepository.save(admin);
+        });
+        logger.info("All tokens issued before {} revoked for user={}", watermark, username);
+        return watermark;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        sync();
+    }
+
+    /**
+     * Pull revocations made on other nodes and drop entries whose tokens have expired.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}", initialDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        long now = System.currentTimeMillis();
+        try {
+            LocalDateTime nowLdt = LocalDateTime.now();
+            for (RevokedToken t : revokedTokenRepository.findByExpiresAtAfter(nowLdt)) {
+                revokedJtis.putIfAbsent(t.getJti(), t.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+            revokedJtis.values().removeIf(expiresAt -> expiresAt <= now);
+            revokedTokenRepository.deleteExpired(nowLdt);
+
+            // watermarks only ever move forward, so merging with max is safe against concurrent local updates
+            for (AdminModel admin : adminRepository.findByTokensValidAfterIsNotNull()) {
+                validAfterByUser.merge(admin.getAdminName(), admin.getTokensValidAfter(), Math::max);
+            }
+        } catch (Exception e) {
+            logger.warn("Token revocation sync failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,25 +1,63 @@
 package com.example.demo.service;
 
+import org.apache.commons.codec.binary.Base32;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import com.example.demo.cache.LruCache;
 import com.warrenstrange.googleauth.GoogleAuthenticator;
-import com.warrenstrange.googleauth.GoogleAuthenticatorConfig;
-import com.warrenstrange.googleauth.GoogleAuthenticatorConfig.GoogleAuthenticatorConfigBuilder;
 import com.warrenstrange.googleauth.GoogleAuthenticatorKey;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.net.URLEncoder;
+import java.security.GeneralSecurityException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TwoFactorService {
 
-    // Configure tolerance window (default is 1 step each side in some versions)
-    private final GoogleAuthenticator gAuth;
+    private static final long STEP_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final int DIGITS_MOD = 1_000_000;
 
-    public TwoFactorService() {
-        GoogleAuthenticatorConfigBuilder configBuilder = new GoogleAuthenticatorConfigBuilder()
-                .setWindowSize(1); // allow ±1 step (30s each) — tune as needed
-        GoogleAuthenticatorConfig config = configBuilder.build();
-        this.gAuth = new GoogleAuthenticator(config);
+    // secret generation only; codes are checked in verifyCode
+    private final GoogleAuthenticator gAuth = new GoogleAuthenticator();
+
+    // one Mac per thread; init() with a cached key is cheap, getInstance() is not
+    private static final ThreadLocal<Mac> HMAC_SHA1 = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance("HmacSHA1");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA1 not available", e);
+        }
+    });
+
+    // username -> decoded key, valid while the stored secret is unchanged
+    private final LruCache<String, DecodedKey> keys;
+    // username -> last accepted time step; codes from that step or earlier are replays (RFC 6238 §5.2)
+    private final ConcurrentHashMap<String, Long> lastUsedStep = new ConcurrentHashMap<>();
+
+    // steps accepted either side of the current one; 0 = current step only, as googleauth's windowSize=1 was
+    @Value("${security.totp.window:0}")
+    private int window;
+    @Value("${security.totp.used-steps.max-entries:10000}")
+    private int usedStepsMaxEntries;
+
+    public TwoFactorService(@Value("${security.totp.key-cache.max-entries:1000}") int keyCacheMaxEntries) {
+        this.keys = new LruCache<>(keyCacheMaxEntries);
+    }
+
+    private static final class DecodedKey {
+        final String secret;
+        final SecretKeySpec key;
+
+        DecodedKey(String secret, SecretKeySpec key) {
+            this.secret = secret;
+            this.key = key;
+        }
     }
 
     // Generate a new secret (Base32)
@@ -47,14 +85,84 @@ public class TwoFactorService {
         }
     }
 
-    // Verify provided code (6-digit)
-    public boolean verifyCode(String secret, int code) {
-        if (secret == null || secret.isBlank()) return false;
+    /**
+     * Verify a 6-digit code for this user. Accepts ±window steps, but each step at most once per user:
+     * a code (or an older one) that already signed in is rejected as a replay.
+     */
+    public boolean verifyCode(String username, String secret, int code) {
+        if (username == null || secret == null || secret.isBlank() || code < 0 || code >= DIGITS_MOD) return false;
         try {
-            return gAuth.authorize(secret, code);
+            SecretKeySpec key = decodedKey(username, secret);
+            long current = System.currentTimeMillis() / STEP_MILLIS;
+            Mac mac = HMAC_SHA1.get();
+            mac.init(key);
+            for (int i = -window; i <= window; i++) {
+                long step = current + i;
+                if (totp(mac, step) == code) {
+                    return markUsed(username, step);
+                }
+            }
+            return false;
         } catch(Exception e) {
             // don't log secret; log only the fact of failure if needed
             return false;
         }
     }
+
+    /**
+     * Drop per-user state, e.g. after a new secret was generated.
+     */
+    public void forget(String username) {
+        if (username == null) return;
+        keys.remove(username);
+        lastUsedStep.remove(username);
+    }
+
+    // entries older than the window can never block a code again
+    @Scheduled(fixedDelayString = "${security.totp.sweep-interval-ms:60000}")
+    public void sweep() {
+        long oldestRelevant = System.currentTimeMillis() / STEP_MILLIS - window;
+        lastUsedStep.values().removeIf(step -> step < oldestRelevant);
+    }
+
+    private SecretKeySpec decodedKey(String username, String secret) {
+        DecodedKey cached = keys.get(username);
+        if (cached != null && cached.secret.equals(secret)) {
+            return cached.key;
+        }
+        byte[] raw = new Base32().decode(secret.replace(" ", "").toUpperCase(Locale.ROOT));
+        SecretKeySpec key = new SecretKeySpec(raw, "HmacSHA1");
+        keys.put(username, new DecodedKey(secret, key));
+        return key;
+    }
+
+    // atomically claim the step: only a step newer than the last accepted one passes
+    private boolean markUsed(String username, long step) {
+        if (lastUsedStep.size() >= usedStepsMaxEntries) {
+            sweep();
+        }
+        boolean[] accepted = new boolean[1];
+        lastUsedStep.compute(username, (k, last) -> {
+            if (last != null && step <= last) return last;
+            accepted[0] = true;
+            return step;
+        });
+        return accepted[0];
+    }
+
+    // RFC 4226 dynamic truncation over HMAC-SHA1 of the big-endian step counter
+    private static int totp(Mac mac, long step) {
+        byte[] counter = new byte[8];
+        for (int i = 7; i >= 0; i--) {
+            counter[i] = (byte) step;
+            step >>>= 8;
+        }
+        byte[] hash = mac.doFinal(counter);
+        int offset = hash[hash.length - 1] & 0xF;
+        int binary = ((hash[offset] & 0x7F) << 24)
+                | ((hash[offset + 1] & 0xFF) << 16)
+                | ((hash[offset + 2] & 0xFF) << 8)
+                | (hash[offset + 3] & 0xFF);
+        return binary % DIGITS_MOD;
+    }
 }
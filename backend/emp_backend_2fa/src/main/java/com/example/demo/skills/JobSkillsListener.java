@@ -0,0 +1,27 @@
+package com.example.demo.skills;
+
+import com.example.demo.model.Job;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Stores {@link Job#getRequiredSkills()} in canonical form on every insert / update, whatever path wrote
+ * the job. Hibernate creates the listener through Spring, so the taxonomy is constructor-injected.
+ */
+public class JobSkillsListener {
+
+    private final SkillTaxonomy skillTaxonomy;
+
+    public JobSkillsListener(SkillTaxonomy skillTaxonomy) {
+        this.skillTaxonomy = skillTaxonomy;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void normalizeSkills(Job job) {
+        if (job.getRequiredSkills() != null && !job.getRequiredSkills().isBlank()) {
+            job.setRequiredSkills(skillTaxonomy.normalize(job.getRequiredSkills()));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.skills;
+
+import java.util.BitSet;
+
+/**
+ * Immutable set of canonical skill ids (see {@link SkillTaxonomy}) backed by a bitset, so matching a
+ * candidate against a job is a handful of word-wise ANDs instead of string comparisons.
+ */
+public final class SkillSet {
+
+    public static final SkillSet EMPTY = new SkillSet(new BitSet());
+
+    private final BitSet bits;
+    private final int size;
+
+    private SkillSet(BitSet bits) {
+        this.bits = bits;
+        this.size = bits.cardinality();
+    }
+
+    /**
+     * Snapshot of the given bits; later changes to the argument are not seen.
+     */
+    public static SkillSet of(BitSet bits) {
+        return (bits == null || bits.isEmpty()) ? EMPTY : new SkillSet((BitSet) bits.clone());
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int skillId) {
+        return skillId >= 0 && bits.get(skillId);
+    }
+
+    public int intersectionSize(SkillSet other) {
+        if (isEmpty() || other.isEmpty()) return 0;
+        BitSet and = (BitSet) bits.clone();
+        and.and(other.bits);
+        return and.cardinality();
+    }
+
+    public boolean intersects(SkillSet other) {
+        return bits.intersects(other.bits);
+    }
+
+    public boolean containsAll(SkillSet other) {
+        return intersectionSize(other) == other.size;
+    }
+
+    /**
+     * Share of the required skills present in this set (0..1); 0 when nothing is required.
+     */
+    public double coverageOf(SkillSet required) {
+        if (required.isEmpty()) return 0.0;
+        return (double) intersectionSize(required) / (double) required.size;
+    }
+
+    /**
+     * Skill ids in ascending order.
+     */
+    public int[] ids() {
+        return bits.stream().toArray();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SkillSet && bits.equals(((SkillSet) o).bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return bits.hashCode();
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.demo.skills;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Dictionary of canonical skills ({@code skills/taxonomy.json}): every skill gets a dense integer id, and its
+ * name and synonyms are keys in a character trie. Keys ignore case, spaces and punctuation, so
+ * "Spring boot", "springboot" and "SpringBoot 3" all resolve to the same id; a trailing version number
+ * is accepted after a key.
+ *
+ * Lookups walk the trie once per character and allocate nothing but the result. Free text ("5 years of
+ * Java/Spring Boot and Docker") is scanned for the longest key starting at each word; keys marked exact
+ * in the taxonomy ("go", "react", "rest") are too common in prose and only count when they are a whole
+ * list item.
+ *
+ * Immutable after construction and safe to share.
+ */
+@Component
+public class SkillTaxonomy {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillTaxonomy.class);
+
+    private final Node root = new Node();
+    private final List<String> ids = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+
+    public SkillTaxonomy(@Value("${app.skills.taxonomy:classpath:skills/taxonomy.json}") Resource taxonomy) {
+        try (InputStream in = taxonomy.getInputStream()) {
+            JsonNode skills = new ObjectMapper().readTree(in).path("skills");
+            for (JsonNode skill : skills) {
+                String name = skill.path("name").asText("").trim();
+                if (name.isEmpty()) continue;
+                int id = names.size();
+                ids.add(skill.path("id").asText(name));
+                names.add(name);
+
+                List<String> exact = new ArrayList<>();
+                for (JsonNode e : skill.path("exact")) exact.add(key(e.asText()));
+                addKey(name, id, exact);
+                for (JsonNode synonym : skill.path("synonyms")) addKey(synonym.asText(), id, exact);
+            }
+            logger.info("Skill taxonomy loaded: {} skills from {}", names.size(), taxonomy.getDescription());
+        } catch (Exception e) {
+            // without a dictionary skills are stored as given and scoring falls back to keywords
+            logger.warn("Skill taxonomy {} not loaded: {}", taxonomy.getDescription(), e.getMessage());
+        }
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public String canonicalName(int skillId) {
+        return names.get(skillId);
+    }
+
+    /**
+     * Stable string id from the taxonomy file (e.g. "spring-boot").
+     */
+    public String canonicalId(int skillId) {
+        return ids.get(skillId);
+    }
+
+    /**
+     * Id of a single skill ("Spring boot", "Java 17"), or -1 when it is not in the dictionary.
+     */
+    public int idOf(String skill) {
+        return skill == null ? -1 : idOf(skill, 0, skill.length());
+    }
+
+    private int idOf(String text, int from, int to) {
+        int start = from;
+        int end = to;
+        while (start < end && fold(text.charAt(start)) == 0) start++;
+        while (end > start && fold(text.charAt(end - 1)) == 0) end--;
+        if (start == end) return -1;
+
+        long match = longestMatch(text, start, end, true);
+        return (match >= 0 && (int) match == end) ? (int) (match >>> 32) : -1;
+    }
+
+    /**
+     * Skills mentioned in a list ("Java, Spring Boot; Docker") or free text. Each comma / semicolon / line
+     * separated item is first tried as one skill, otherwise scanned for skill mentions.
+     */
+    public SkillSet skillSet(String text) {
+        if (text == null || text.isBlank() || names.isEmpty()) return SkillSet.EMPTY;
+        BitSet bits = new BitSet(names.size());
+        int itemStart = 0;
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            if (i == n || isItemSeparator(text.charAt(i))) {
+                collect(text, itemStart, i, bits);
+                itemStart = i + 1;
+            }
+        }
+        return SkillSet.of(bits);
+    }
+
+    public SkillSet skillSet(Collection<String> skills) {
+        if (skills == null || skills.isEmpty() || names.isEmpty()) return SkillSet.EMPTY;
+        BitSet bits = new BitSet(names.size());
+        for (String skill : skills) {
+            if (skill != null) collect(skill, 0, skill.length(), bits);
+        }
+        return SkillSet.of(bits);
+    }
+
+    /**
+     * Canonical, de-duplicated, comma separated form of a skill list, as stored in Employee.resumeSkills and
+     * Job.requiredSkills. Known skills are replaced by their canonical name; unknown ones are kept trimmed.
+     * Idempotent.
+     */
+    public String normalize(Collection<String> skills) {
+        if (skills == null) return "";
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String skill : skills) {
+            if (skill == null || skill.isBlank()) continue;
+            int id = idOf(skill);
+            String value = id >= 0 ? names.get(id) : skill.trim();
+            distinct.putIfAbsent(value.toLowerCase(Locale.ROOT), value);
+        }
+        return String.join(",", distinct.values());
+    }
+
+    public String normalize(String skillList) {
+        if (skillList == null || skillList.isBlank()) return skillList;
+        return normalize(Arrays.asList(skillList.split("[,;\\n|]")));
+    }
+
+    private void collect(String text, int from, int to, BitSet bits) {
+        int id = idOf(text, from, to);
+        if (id >= 0) {
+            bits.set(id);
+            return;
+        }
+        int i = from;
+        while (i < to) {
+            boolean wordStart = fold(text.charAt(i)) != 0 && (i == from || !Character.isLetterOrDigit(text.charAt(i - 1)));
+            if (!wordStart) {
+                i++;
+                continue;
+            }
+            long match = longestMatch(text, i, to, false);
+            if (match >= 0) {
+                bits.set((int) (match >>> 32));
+                i = (int) match;
+            } else {
+                while (i < to && Character.isLetterOrDigit(text.charAt(i))) i++;
+                if (i < to && fold(text.charAt(i)) != 0) i++;
+            }
+        }
+    }
+
+    /**
+     * Longest key starting at {@code start}, ending on a word boundary (optionally followed by a version
+     * number). Returns {@code (skillId << 32) | end} or -1. A single space / dot / dash / slash between key
+     * characters is skipped, so "Spring Boot", "spring-boot" and "springboot" walk the same path.
+     */
+    private long longestMatch(String text, int start, int limit, boolean allowExact) {
+        Node node = root;
+        long best = -1;
+        int i = start;
+        while (i < limit) {
+            char raw = text.charAt(i);
+            char c = fold(raw);
+            if (c == 0) {
+                if (!isJoiner(raw) || i + 1 >= limit || fold(text.charAt(i + 1)) == 0) break;
+                i++;
+                continue;
+            }
+            node = node.child(c);
+            if (node == null) break;
+            i++;
+            if (node.skillId >= 0 && (allowExact || !node.exact)) {
+                int end = boundary(text, i, limit);
+                if (end >= 0) best = ((long) node.skillId << 32) | end;
+            }
+        }
+        return best;
+    }
+
+    // end of the match if the key stops at a word boundary, including a version suffix ("17", " 3.11") if any
+    private static int boundary(String text, int i, int limit) {
+        int j = (i + 1 < limit && text.charAt(i) == ' ' && Character.isDigit(text.charAt(i + 1))) ? i + 1 : i;
+        int k = j;
+        while (k < limit && (Character.isDigit(text.charAt(k))
+                || (text.charAt(k) == '.' && k + 1 < limit && Character.isDigit(text.charAt(k + 1))))) {
+            k++;
+        }
+        if (k > j && (k >= limit || !Character.isLetter(text.charAt(k)))) return k;
+        return (i >= limit || !Character.isLetterOrDigit(text.charAt(i))) ? i : -1;
+    }
+
+    private void addKey(String form, int id, List<String> exact) {
+        String key = key(form);
+        if (key.isEmpty()) return;
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) node = node.childOrCreate(key.charAt(i));
+        if (node.skillId >= 0 && node.skillId != id) {
+            logger.warn("Skill key '{}' of {} already belongs to {}; ignored", form, names.get(id), names.get(node.skillId));
+            return;
+        }
+        node.skillId = id;
+        node.exact = exact.contains(key);
+    }
+
+    private static String key(String form) {
+        StringBuilder sb = new StringBuilder(form.length());
+        for (int i = 0; i < form.length(); i++) {
+            char c = fold(form.charAt(i));
+            if (c != 0) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    // key characters: letters/digits lower-cased plus '+' and '#' (C++, C#); anything else is 0
+    private static char fold(char c) {
+        if (c == '+' || c == '#') return c;
+        return Character.isLetterOrDigit(c) ? Character.toLowerCase(c) : 0;
+    }
+
+    private static boolean isJoiner(char c) {
+        return c == ' ' || c == '.' || c == '-' || c == '_' || c == '/';
+    }
+
+    private static boolean isItemSeparator(char c) {
+        return c == ',' || c == ';' || c == '\n' || c == '|';
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        char[] labels = new char[0];
+        Node[] children = NO_CHILDREN;
+        int skillId = -1;
+        boolean exact;
+
+        Node child(char c) {
+            char[] l = labels;
+            for (int i = 0; i < l.length; i++) {
+                if (l[i] == c) return children[i];
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node existing = child(c);
+            if (existing != null) return existing;
+            Node created = new Node();
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            labels[labels.length - 1] = c;
+            children[children.length - 1] = created;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Track the latest async resume ingestion per employee
+ALTER TABLE employees_table
+  ADD COLUMN resume_ingestion_id VARCHAR(36) DEFAULT NULL,
+  ADD INDEX idx_employees_resume_ingestion_id (resume_ingestion_id);
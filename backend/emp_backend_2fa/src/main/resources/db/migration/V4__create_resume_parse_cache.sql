@@ -0,0 +1,8 @@
+-- Persistent tier of the LLM resume-parse cache
+CREATE TABLE IF NOT EXISTS resume_parse_cache (
+  cache_key CHAR(64) PRIMARY KEY,
+  parse_model VARCHAR(255) NOT NULL,
+  prompt_version VARCHAR(32) NOT NULL,
+  parsed_json MEDIUMTEXT NOT NULL,
+  created_at DATETIME(6)
+);
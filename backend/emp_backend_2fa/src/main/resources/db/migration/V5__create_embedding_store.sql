@@ -0,0 +1,8 @@
+-- Content-addressed embedding vectors (float32 little-endian BLOBs)
+CREATE TABLE IF NOT EXISTS embedding_store (
+  cache_key CHAR(64) PRIMARY KEY,
+  model VARCHAR(255) NOT NULL,
+  dims INT NOT NULL,
+  vector MEDIUMBLOB NOT NULL,
+  created_at DATETIME(6)
+);
@@ -0,0 +1,5 @@
+-- Filter columns of the paged employee listing (GET /api/v1/employees/page)
+ALTER TABLE employees_table
+  ADD INDEX idx_employees_dep (dep),
+  ADD INDEX idx_employees_des (des),
+  ADD INDEX idx_employees_resume_status (resume_status);
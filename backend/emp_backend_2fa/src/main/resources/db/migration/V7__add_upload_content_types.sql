@@ -0,0 +1,4 @@
+-- Content types recorded at upload time (file downloads no longer probe the disk)
+ALTER TABLE employees_table
+  ADD COLUMN profile_photo_content_type VARCHAR(100) DEFAULT NULL,
+  ADD COLUMN resume_content_type VARCHAR(100) DEFAULT NULL;
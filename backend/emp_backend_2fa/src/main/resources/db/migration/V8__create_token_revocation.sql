@@ -0,0 +1,11 @@
+-- Server-side JWT revocation: per-token (logout) and per-user watermark (password reset / 2FA enablement)
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+  jti        VARCHAR(36)  NOT NULL PRIMARY KEY,
+  admin_name VARCHAR(255) DEFAULT NULL,
+  expires_at DATETIME(6)  NOT NULL,
+  revoked_at DATETIME(6)  DEFAULT NULL,
+  INDEX idx_revoked_tokens_expires_at (expires_at)
+);
+
+ALTER TABLE admin
+  ADD COLUMN tokens_valid_after BIGINT DEFAULT NULL;
@@ -0,0 +1,177 @@
+package com.example.demo.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load comparison for the blocking upload and shortlist endpoints, platform vs virtual threads.
+ *
+ * Not a unit test: start the backend once with {@code SPRING_THREADS_VIRTUAL_ENABLED=false} and once with
+ * {@code true} (Java 21 runtime), run this main against each and compare throughput, latency percentiles,
+ * live threads and heap used as reported by the backend's actuator.
+ *
+ * <pre>
+ * java -Dbench.baseUrl=http://localhost:8080 -Dbench.token=&lt;admin JWT&gt; \
+ *   -Dbench.employeeId=1 -Dbench.jobId=1 -Dbench.resume=/path/to/resume.pdf \
+ *   -Dbench.concurrency=200 -Dbench.requests=2000 \
+ *   -cp target/test-classes com.example.demo.bench.BlockingEndpointsBench
+ * </pre>
+ */
+public class BlockingEndpointsBench {
+
+    private static final String BASE_URL = System.getProperty("bench.baseUrl", "http://localhost:8080");
+    private static final String TOKEN = System.getProperty("bench.token", "");
+    private static final long EMPLOYEE_ID = Long.getLong("bench.employeeId", 1L);
+    private static final long JOB_ID = Long.getLong("bench.jobId", 1L);
+    private static final String RESUME = System.getProperty("bench.resume", "");
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 200);
+    private static final int REQUESTS = Integer.getInteger("bench.requests", 2000);
+    private static final int WARMUP = Integer.getInteger("bench.warmup", 100);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("target=%s concurrency=%d requests=%d%n", BASE_URL, CONCURRENCY, REQUESTS);
+        printServerState("before");
+
+        run("shortlist score", () -> HttpRequest.newBuilder(
+                        URI.create(BASE_URL + "/api/shortlist/" + JOB_ID + "/employee/" + EMPLOYEE_ID))
+                .header("Authorization", "Bearer " + TOKEN)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build());
+
+        if (!RESUME.isBlank()) {
+            byte[] file = Files.readAllBytes(Path.of(RESUME));
+            String fileName = Path.of(RESUME).getFileName().toString();
+            run("upload resume (sync)", () -> upload(file, fileName, false));
+            run("upload resume (async)", () -> upload(file, fileName, true));
+        } else {
+            System.out.println("bench.resume not set, skipping upload scenarios");
+        }
+
+        printServerState("after");
+    }
+
+    private static void run(String name, Supplier<HttpRequest> request) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            drive(clients, request, WARMUP);
+            long started = System.nanoTime();
+            Result result = drive(clients, request, REQUESTS);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            long[] latencies = result.latenciesMicros();
+            Arrays.sort(latencies);
+            System.out.printf("%-24s %8.1f req/s  p50=%6.1fms p95=%6.1fms p99=%6.1fms max=%6.1fms  errors=%d (%s)%n",
+                    name, REQUESTS / seconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1000.0,
+                    result.errors.get(), result.lastError);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static Result drive(ExecutorService clients, Supplier<HttpRequest> request, int count) throws Exception {
+        Result result = new Result(count);
+        List<Future<?>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(clients.submit(() -> {
+                long t0 = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = CLIENT.send(request.get(), HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400) {
+                        result.errors.incrementAndGet();
+                        result.lastError = "HTTP " + response.statusCode();
+                    }
+                } catch (Exception e) {
+                    result.errors.incrementAndGet();
+                    result.lastError = e.getClass().getSimpleName();
+                }
+                result.record(System.nanoTime() - t0);
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        return result;
+    }
+
+    private static HttpRequest upload(byte[] file, String fileName, boolean async) {
+        String boundary = "----bench" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(file.length + 512);
+        String head = "--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + fileName + "\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n";
+        body.writeBytes(head.getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(file);
+        body.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return HttpRequest.newBuilder(URI.create(BASE_URL + "/api/v1/employees/" + EMPLOYEE_ID
+                        + "/upload-resume?jobId=" + JOB_ID + "&async=" + async))
+                .header("Authorization", "Bearer " + TOKEN)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+    }
+
+    // live threads and heap as seen by the server, the numbers virtual threads are supposed to keep flat
+    private static void printServerState(String label) {
+        System.out.printf("[%s] server threads=%s heapUsed=%sMB%n", label,
+                metric("jvm.threads.live", 1), metric("jvm.memory.used?tag=area:heap", 1024 * 1024));
+    }
+
+    private static String metric(String name, double divisor) {
+        try {
+            HttpResponse<String> response = CLIENT.send(HttpRequest.newBuilder(URI.create(BASE_URL + "/actuator/metrics/" + name))
+                    .header("Authorization", "Bearer " + TOKEN).GET().build(), HttpResponse.BodyHandlers.ofString());
+            Matcher m = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)").matcher(response.body());
+            return m.find() ? String.format("%.0f", Double.parseDouble(m.group(1)) / divisor) : "n/a";
+        } catch (Exception e) {
+            return "n/a";
+        }
+    }
+
+    private static double percentile(long[] sortedMicros, double p) {
+        if (sortedMicros.length == 0) return 0;
+        int index = (int) Math.min(sortedMicros.length - 1, Math.ceil(p * sortedMicros.length) - 1);
+        return sortedMicros[Math.max(0, index)] / 1000.0;
+    }
+
+    private static final class Result {
+        final long[] latencies;
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        volatile String lastError = "-";
+
+        Result(int count) {
+            this.latencies = new long[count];
+        }
+
+        void record(long nanos) {
+            latencies[next.getAndIncrement()] = nanos / 1000;
+        }
+
+        long[] latenciesMicros() {
+            return Arrays.copyOf(latencies, next.get());
+        }
+    }
+}
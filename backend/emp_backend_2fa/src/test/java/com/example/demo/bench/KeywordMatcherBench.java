@@ -0,0 +1,114 @@
+package com.example.demo.bench;
+
+import com.example.demo.index.KeywordMatcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword fallback of the shortlist score: the previous regex + {@code String.contains} implementation
+ * against {@link KeywordMatcher}, both compiled per call and precompiled once per job (as the service does).
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.demo.bench.KeywordMatcherBench
+ * </pre>
+ * Add {@code -prof gc} through the JMH main ({@code org.openjdk.jmh.Main KeywordMatcherBench -prof gc})
+ * to compare allocation per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeywordMatcherBench {
+
+    private static final String[] VOCABULARY = {
+            "java", "spring", "boot", "hibernate", "jpa", "mysql", "postgresql", "docker", "kubernetes", "aws",
+            "react", "javascript", "typescript", "node", "python", "django", "kafka", "redis", "microservices",
+            "rest", "graphql", "jenkins", "git", "linux", "agile", "scrum", "team", "lead", "design", "testing",
+            "junit", "mockito", "maven", "gradle", "cloud", "azure", "terraform", "ansible", "html", "css"
+    };
+
+    @Param({"200", "2000"})
+    private int resumeWords;
+
+    private String jobSkills;
+    private String resumeText;
+    private KeywordMatcher precompiled;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        jobSkills = "Java, Spring Boot; Hibernate, MySQL, Docker, Kubernetes, AWS, REST, Kafka, Redis, JUnit, Maven";
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < resumeWords; i++) {
+            if (i > 0) sb.append(i % 12 == 0 ? ". " : i % 5 == 0 ? ", " : " ");
+            String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            sb.append(i % 7 == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+        }
+        resumeText = sb.toString();
+        precompiled = KeywordMatcher.compile(jobSkills);
+    }
+
+    @Benchmark
+    public double legacy() {
+        return legacyKeywordSimilarityScore(resumeText, jobSkills);
+    }
+
+    @Benchmark
+    public double matcherCompileAndScore() {
+        return KeywordMatcher.compile(jobSkills).score(resumeText);
+    }
+
+    @Benchmark
+    public double matcherPrecompiled() {
+        return precompiled.score(resumeText);
+    }
+
+    // AIShortlistingService.keywordSimilarityScore before the matcher, kept verbatim as the baseline
+    private static double legacyKeywordSimilarityScore(String candidateText, String jobSkills) {
+        if (jobSkills == null || jobSkills.isBlank()) return 0.0;
+        if (candidateText == null) candidateText = "";
+
+        String cand = candidateText.toLowerCase().replaceAll("[^a-z0-9, ]", " ");
+        String job = jobSkills.toLowerCase().replaceAll("[^a-z0-9, ]", " ");
+
+        Set<String> jobTokens = new HashSet<>();
+        for (String t : job.split("[,;\\s]+")) {
+            String tk = t.trim();
+            if (tk.length() > 1) jobTokens.add(tk);
+        }
+        if (jobTokens.isEmpty()) return 0.0;
+
+        int matches = 0;
+        for (String tk : jobTokens) {
+            if (cand.contains(tk)) matches++;
+        }
+        return (double) matches / (double) jobTokens.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(KeywordMatcherBench.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class KeywordMatcherTest {
+
+	@Test
+	void scoresShareOfDistinctJobTokens() {
+		KeywordMatcher matcher = KeywordMatcher.compile("Java, Spring Boot, Kafka, Java");
+		assertEquals(4, matcher.size());
+		assertEquals(0.5, matcher.score("Worked with java and kafka"), 1e-9);
+		assertEquals(1.0, matcher.score("KAFKA / spring-boot / JAVA"), 1e-9);
+	}
+
+	@Test
+	void matchesWholeTokensOnly() {
+		KeywordMatcher matcher = KeywordMatcher.compile("java");
+		assertEquals(0.0, matcher.score("javascript developer"), 1e-9);
+		assertEquals(1.0, matcher.score("javascript and java"), 1e-9);
+	}
+
+	@Test
+	void repeatedMentionsCountOnce() {
+		KeywordMatcher matcher = KeywordMatcher.compile("docker kubernetes");
+		assertEquals(0.5, matcher.score("docker docker docker"), 1e-9);
+	}
+
+	@Test
+	void punctuationSeparatesTokens() {
+		// "C++" and "C#" fold to the single-character token "c", which is ignored
+		KeywordMatcher matcher = KeywordMatcher.compile("C++, C#, .NET");
+		assertEquals(1, matcher.size());
+		assertEquals(1.0, matcher.score("ASP.NET"), 1e-9);
+	}
+
+	@Test
+	void blankInputScoresZero() {
+		assertEquals(0, KeywordMatcher.compile("  ").size());
+		assertEquals(0.0, KeywordMatcher.compile(null).score("java"), 1e-9);
+		assertEquals(0.0, KeywordMatcher.compile("java").score(""), 1e-9);
+		assertEquals(0.0, KeywordMatcher.compile("java").score(null), 1e-9);
+	}
+
+	@Test
+	void manyTokensStillResolve() {
+		StringBuilder job = new StringBuilder();
+		for (int i = 0; i < 200; i++) job.append("skill").append(i).append(' ');
+		KeywordMatcher matcher = KeywordMatcher.compile(job.toString());
+		assertEquals(200, matcher.size());
+		assertEquals(0.01, matcher.score("SKILL7 skill199"), 1e-9);
+	}
+
+}
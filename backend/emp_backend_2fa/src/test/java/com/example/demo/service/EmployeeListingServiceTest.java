@@ -0,0 +1,91 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.model.EmployeeSummary;
+import com.example.demo.repository.EmployeeSortField;
+import com.example.demo.repository.EmployeeSummaryQuery;
+
+class EmployeeListingServiceTest {
+
+	@Test
+	void cursorRoundTripsSortValueAndId() {
+		EmployeeSummaryQuery issued = query(EmployeeSortField.JOINING_DATE, true);
+		String cursor = EmployeeListingService.encodeCursor(issued, summary(42, "Asha", LocalDate.of(2021, 3, 5), 75.5));
+
+		EmployeeSummaryQuery next = query(EmployeeSortField.JOINING_DATE, true);
+		EmployeeListingService.applyCursor(next, cursor);
+
+		assertEquals(42L, next.getAfterId());
+		assertEquals(LocalDate.of(2021, 3, 5), next.getAfterValue());
+		assertTrue(next.isKeyset());
+	}
+
+	@Test
+	void nullSortValueUsesTheSentinel() {
+		String cursor = EmployeeListingService.encodeCursor(query(EmployeeSortField.RESUME_SCORE, false),
+				summary(7, "Ravi", null, null));
+
+		EmployeeSummaryQuery next = query(EmployeeSortField.RESUME_SCORE, false);
+		EmployeeListingService.applyCursor(next, cursor);
+
+		assertEquals(-1.0, next.getAfterValue());
+	}
+
+	@Test
+	void textSortValueMayContainTheSeparator() {
+		String cursor = EmployeeListingService.encodeCursor(query(EmployeeSortField.FNAME, false),
+				summary(3, "multi\nline", null, null));
+
+		EmployeeSummaryQuery next = query(EmployeeSortField.FNAME, false);
+		EmployeeListingService.applyCursor(next, cursor);
+
+		assertEquals("multi\nline", next.getAfterValue());
+	}
+
+	@Test
+	void cursorFromAnotherSortOrderIsRejected() {
+		String cursor = EmployeeListingService.encodeCursor(query(EmployeeSortField.FNAME, false),
+				summary(1, "Asha", null, null));
+
+		IllegalArgumentException otherField = assertThrows(IllegalArgumentException.class,
+				() -> EmployeeListingService.applyCursor(query(EmployeeSortField.LNAME, false), cursor));
+		assertEquals("Cursor was issued for a different sort order", otherField.getMessage());
+		assertThrows(IllegalArgumentException.class,
+				() -> EmployeeListingService.applyCursor(query(EmployeeSortField.FNAME, true), cursor));
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		EmployeeSummaryQuery query = query(EmployeeSortField.ID, false);
+		assertThrows(IllegalArgumentException.class, () -> EmployeeListingService.applyCursor(query, "%%%"));
+		assertThrows(IllegalArgumentException.class, () -> EmployeeListingService.applyCursor(query, encode("ID\na\n1")));
+		assertThrows(IllegalArgumentException.class, () -> EmployeeListingService.applyCursor(query, encode("ID\na\nx\n1")));
+		assertThrows(IllegalArgumentException.class, () -> EmployeeListingService.applyCursor(query, encode("ID\na\n1\nnot-a-number")));
+	}
+
+	private static EmployeeSummaryQuery query(EmployeeSortField sort, boolean descending) {
+		EmployeeSummaryQuery query = new EmployeeSummaryQuery();
+		query.setSort(sort);
+		query.setDescending(descending);
+		return query;
+	}
+
+	private static EmployeeSummary summary(long id, String fname, LocalDate joiningDate, Double resumeScore) {
+		return new EmployeeSummary(id, fname, "Rao", "e" + id + "@example.com", 50000, "IT", "Engineer", joiningDate,
+				null, null, null, resumeScore, null, null);
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
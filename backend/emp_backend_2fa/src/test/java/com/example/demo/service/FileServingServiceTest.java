@@ -0,0 +1,55 @@
+package com.example.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class FileServingServiceTest {
+
+	private static final long LENGTH = 1000;
+
+	@Test
+	void closedRange() {
+		assertArrayEquals(new long[] { 0, 499 }, FileServingService.parseRange("bytes=0-499", LENGTH));
+	}
+
+	@Test
+	void openEndedRange() {
+		assertArrayEquals(new long[] { 500, 999 }, FileServingService.parseRange("bytes=500-", LENGTH));
+	}
+
+	@Test
+	void endPastLengthIsClamped() {
+		assertArrayEquals(new long[] { 900, 999 }, FileServingService.parseRange("bytes=900-5000", LENGTH));
+	}
+
+	@Test
+	void suffixRange() {
+		assertArrayEquals(new long[] { 800, 999 }, FileServingService.parseRange("bytes=-200", LENGTH));
+		// a suffix longer than the file is the whole file
+		assertArrayEquals(new long[] { 0, 999 }, FileServingService.parseRange("bytes=-2000", LENGTH));
+	}
+
+	@Test
+	void unsatisfiableRanges() {
+		assertNull(FileServingService.parseRange("bytes=1000-", LENGTH));
+		assertNull(FileServingService.parseRange("bytes=1000-1200", LENGTH));
+		assertNull(FileServingService.parseRange("bytes=-0", LENGTH));
+		assertNull(FileServingService.parseRange("bytes=5-2", LENGTH));
+		assertNull(FileServingService.parseRange("bytes=0-", 0));
+	}
+
+	@Test
+	void malformedRangesAreUnsatisfiable() {
+		assertNull(FileServingService.parseRange("bytes=abc", LENGTH));
+		assertNull(FileServingService.parseRange("bytes=a-b", LENGTH));
+	}
+
+	@Test
+	void multiRangeAndOtherUnitsAreIgnored() {
+		assertArrayEquals(new long[0], FileServingService.parseRange("bytes=0-1,5-9", LENGTH));
+		assertArrayEquals(new long[0], FileServingService.parseRange("items=0-1", LENGTH));
+	}
+
+}
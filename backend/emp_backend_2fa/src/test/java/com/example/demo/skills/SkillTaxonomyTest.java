@@ -0,0 +1,93 @@
+package com.example.demo.skills;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+class SkillTaxonomyTest {
+
+	private final SkillTaxonomy taxonomy = new SkillTaxonomy(new ClassPathResource("skills/taxonomy.json"));
+
+	@Test
+	void spellingsResolveToOneSkill() {
+		int springBoot = taxonomy.idOf("Spring Boot");
+		assertTrue(springBoot >= 0);
+		assertEquals(springBoot, taxonomy.idOf("springboot"));
+		assertEquals(springBoot, taxonomy.idOf("spring-boot"));
+		assertEquals(springBoot, taxonomy.idOf("  SpringBoot "));
+		assertEquals("Spring Boot", taxonomy.canonicalName(springBoot));
+		assertEquals("spring-boot", taxonomy.canonicalId(springBoot));
+	}
+
+	@Test
+	void versionSuffixIsAccepted() {
+		int java = taxonomy.idOf("java");
+		assertEquals(java, taxonomy.idOf("Java 17"));
+		assertEquals(java, taxonomy.idOf("Java17"));
+		assertEquals(java, taxonomy.idOf("java 1.8"));
+		assertEquals(taxonomy.idOf("Spring Boot"), taxonomy.idOf("SpringBoot 3"));
+	}
+
+	@Test
+	void javaIsNotJavaScript() {
+		int java = taxonomy.idOf("Java");
+		int javascript = taxonomy.idOf("JavaScript");
+		assertTrue(java >= 0 && javascript >= 0);
+		assertNotEquals(java, javascript);
+
+		SkillSet skills = taxonomy.skillSet("JavaScript, TypeScript");
+		assertTrue(skills.contains(javascript));
+		assertFalse(skills.contains(java));
+	}
+
+	@Test
+	void symbolsDistinguishCppAndCSharp() {
+		int cpp = taxonomy.idOf("C++");
+		int csharp = taxonomy.idOf("C#");
+		assertEquals("cpp", taxonomy.canonicalId(cpp));
+		assertEquals("csharp", taxonomy.canonicalId(csharp));
+		assertEquals(cpp, taxonomy.idOf("c plus plus"));
+		assertEquals(csharp, taxonomy.idOf("c sharp"));
+		assertEquals("c", taxonomy.canonicalId(taxonomy.idOf("C")));
+	}
+
+	@Test
+	void skillsAreFoundInFreeText() {
+		SkillSet skills = taxonomy.skillSet("5 years of Java/Spring Boot and Docker");
+		assertTrue(skills.contains(taxonomy.idOf("java")));
+		assertTrue(skills.contains(taxonomy.idOf("spring boot")));
+		assertTrue(skills.contains(taxonomy.idOf("docker")));
+		assertFalse(skills.contains(taxonomy.idOf("javascript")));
+		assertEquals(3, skills.size());
+	}
+
+	@Test
+	void exactKeysOnlyCountAsWholeItems() {
+		int go = taxonomy.idOf("go");
+		assertTrue(taxonomy.skillSet("Go, Docker").contains(go));
+		assertTrue(taxonomy.skillSet("golang services").contains(go));
+		assertFalse(taxonomy.skillSet("ready to go the extra mile").contains(go));
+	}
+
+	@Test
+	void unknownSkills() {
+		assertEquals(-1, taxonomy.idOf("underwater basket weaving"));
+		assertEquals(-1, taxonomy.idOf(""));
+		assertEquals(-1, taxonomy.idOf(null));
+		assertTrue(taxonomy.skillSet("   ").isEmpty());
+	}
+
+	@Test
+	void normalizeIsCanonicalDistinctAndIdempotent() {
+		String normalized = taxonomy.normalize(List.of("springboot", "Java 17", "java", " Basket Weaving "));
+		assertEquals("Spring Boot,Java,Basket Weaving", normalized);
+		assertEquals(normalized, taxonomy.normalize(normalized));
+	}
+
+}
@@ -61,9 +61,13 @@ export class AuthService {
     );
   }
 
-  // Confirm enabling 2FA by sending code
+  // Confirm enabling 2FA by sending code; enabling revokes the old JWT, so keep the fresh one from the response
   confirmTwoFactor(code: string) {
-    return this.http.post<any>(`${this.baseUrl}/2fa/confirm`, { code });
+    return this.http.post<any>(`${this.baseUrl}/2fa/confirm`, { code }).pipe(
+      tap(res => {
+        if (res?.token) this.saveToken(res.token);
+      })
+    );
   }
 
   // register & forgot password (if your UI uses)